@@ -0,0 +1,37 @@
+package ru.pratice.pet_project.personal_finance_management_system.configurations;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class EmailDeliveryConfiguration {
+    // SMTPTransport sends inside synchronized methods, which pin the carrier thread before JDK 24
+    static boolean SYNCHRONIZED_PINS_CARRIER = Runtime.version().feature() < 24;
+
+    @Bean
+    public TaskExecutor emailDeliveryExecutor(@Value("${email.delivery.pool-size:4}") int poolSize,
+                                              @Value("${email.delivery.queue-capacity:100}") int queueCapacity,
+                                              @Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        if (virtual && !SYNCHRONIZED_PINS_CARRIER) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-delivery-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-delivery-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
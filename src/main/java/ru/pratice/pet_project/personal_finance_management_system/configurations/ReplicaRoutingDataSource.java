@@ -0,0 +1,24 @@
+package ru.pratice.pet_project.personal_finance_management_system.configurations;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static String PRIMARY = "primary";
+    static String REPLICA = "replica";
+    ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && readYourWritesTracker.isReplicaAllowed()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
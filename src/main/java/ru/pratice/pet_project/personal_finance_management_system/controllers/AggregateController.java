@@ -0,0 +1,40 @@
+package ru.pratice.pet_project.personal_finance_management_system.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.pratice.pet_project.personal_finance_management_system.entities.MonthlyAggregate;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.MonthlyAggregateRepository.MonthlyTotal;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/aggregates")
+@AllArgsConstructor
+public class AggregateController {
+    MonthlyAggregateService monthlyAggregateService;
+
+    @GetMapping("/monthly")
+    public List<MonthlyAggregate> getMonthlyAggregates(@RequestParam String username,
+                                                       @RequestParam(required = false) String type,
+                                                       @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                       @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return monthlyAggregateService.getMonthlyAggregates(username.trim(),
+                type == null ? null : TypeOfTransaction.parse(type), from, to);
+    }
+
+    @GetMapping("/monthly-totals")
+    public List<MonthlyTotal> getMonthlyTotals(@RequestParam String username,
+                                               @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                               @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return monthlyAggregateService.getMonthlyTotals(username.trim(), from, to);
+    }
+
+    @PostMapping("/rebuild/{username}")
+    public void rebuildAggregates(@PathVariable(name = "username") String username) {
+        monthlyAggregateService.rebuild(username.trim());
+    }
+}
@@ -3,6 +3,7 @@ package ru.pratice.pet_project.personal_finance_management_system.controllers;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryCache;
 import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryService;
 
 import java.util.List;
@@ -22,6 +23,11 @@ public class CategoryController {
     public Category getCategory(@PathVariable(name = "id") long id) {
         return categoryService.getCategoryById(id);
     }
+
+    @GetMapping(path = "/cache-stats")
+    public CategoryCache.Stats getCacheStats() {
+        return categoryService.getCacheStats();
+    }
     //служебный endpoint
     @DeleteMapping(path = "/delete/{id}")
     public void deleteCategory(@PathVariable(name = "id") long id) {
@@ -3,6 +3,7 @@ package ru.pratice.pet_project.personal_finance_management_system.controllers;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitBreachNotifier;
 import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
 
 @RestController
@@ -21,6 +22,11 @@ public class LimitController {
         return limitService.getLimitByUsername(username);
     }
 
+    @GetMapping("/notification-stats")
+    public LimitBreachNotifier.Stats getNotificationStats() {
+        return limitService.getNotificationStats();
+    }
+
     @PatchMapping("/update-limit-amount")
     public void updateLimitAmount(@RequestParam long id, @RequestParam long limitAmount) {
         limitService.updateLimitAmount(id, limitAmount);
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.pratice.pet_project.personal_finance_management_system.entities.User;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.DeletedUserCompactor;
 import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
 
 import java.util.List;
@@ -14,12 +15,18 @@ import java.util.List;
 public class UserController {
     UserService userService;
     UserRepository userRepository;
+    DeletedUserCompactor deletedUserCompactor;
     //служебный endpoint
     @GetMapping
     public List<User> getUsers() {
         return userRepository.findAll();
     }
 
+    @GetMapping("/compaction-progress")
+    public DeletedUserCompactor.Stats getCompactionProgress() {
+        return deletedUserCompactor.getStats();
+    }
+
     @GetMapping(path = "/get/{id}")
     public User getUserById(@PathVariable(name = "id") long id) {
         return userService.getUserById(id);
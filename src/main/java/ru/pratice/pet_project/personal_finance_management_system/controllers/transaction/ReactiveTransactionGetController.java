@@ -0,0 +1,58 @@
+package ru.pratice.pet_project.personal_finance_management_system.controllers.transaction;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.ReactiveTransactionGetService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping(path = "api/transactions_get/reactive",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+@ConditionalOnProperty(name = "transactions.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionGetController {
+    ReactiveTransactionGetService reactiveTransactionGetService;
+
+    @GetMapping(path = "/by-username/{username}")
+    public Flux<Transaction> getTransactionsByUsername(@PathVariable(name = "username") String username) {
+        return reactiveTransactionGetService.getTransactionsByUsername(username.trim());
+    }
+
+    @GetMapping("/filtered-by-type")
+    public Flux<Transaction> getFilteredTransactionsByType(@RequestParam String type,
+                                                           @RequestParam String username) {
+        return reactiveTransactionGetService.getTransactionsByType(TypeOfTransaction.parse(type), username.trim());
+    }
+
+    @GetMapping(path = "/by-category")
+    public Flux<Transaction> getTransactionsByCategory(@RequestParam long categoryId,
+                                                       @RequestParam String username,
+                                                       @RequestParam String type) {
+        return reactiveTransactionGetService.getTransactionsByCategory(categoryId, username.trim(),
+                TypeOfTransaction.parse(type));
+    }
+
+    @GetMapping("/filtered-by-date-range")
+    public Flux<Transaction> getFilteredByDateRangeTransactions(@RequestParam String username,
+                                                                @RequestParam String type,
+                                                                @RequestParam LocalDate from,
+                                                                @RequestParam LocalDate to) {
+        return reactiveTransactionGetService.getTransactionsByDateRange(TypeOfTransaction.parse(type),
+                username.trim(), from, to);
+    }
+
+    @GetMapping("/filtered-by-amount")
+    public Flux<Transaction> getFilteredByAmountTransactions(@RequestParam String username,
+                                                             @RequestParam String type,
+                                                             @RequestParam(required = false) long minAmount,
+                                                             @RequestParam long maxAmount) {
+        return reactiveTransactionGetService.getFilteredByAmountTransactions(TypeOfTransaction.parse(type),
+                username.trim(), minAmount, maxAmount);
+    }
+}
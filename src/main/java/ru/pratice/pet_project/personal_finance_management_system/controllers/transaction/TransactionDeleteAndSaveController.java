@@ -1,10 +1,16 @@
 package ru.pratice.pet_project.personal_finance_management_system.controllers.transaction;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
 import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionDeleteService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionImportResult;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionImportService;
 import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionSaveAndUpdateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.util.List;
 
 
 @RestController
@@ -13,6 +19,7 @@ import ru.pratice.pet_project.personal_finance_management_system.services.transa
 public class TransactionDeleteAndSaveController {
     TransactionDeleteService transactionDeleteService;
     TransactionSaveAndUpdateService transactionService;
+    TransactionImportService transactionImportService;
 
     @DeleteMapping(path = "/delete/{id}")
     public void deleteTransaction(@PathVariable(name = "id") long id) {
@@ -27,13 +34,25 @@ public class TransactionDeleteAndSaveController {
     @DeleteMapping("/delete-by-type")
     public void deleteTransactionByType(@RequestParam String type,
                                         @RequestParam String username) {
-        transactionDeleteService.deleteTransactionsByType(type.trim(), username.trim());
+        transactionDeleteService.deleteTransactionsByType(TypeOfTransaction.parse(type), username.trim());
     }
 
     @PostMapping("/save")
     public void createTransaction(@RequestBody Transaction transaction) {
         transactionService.saveTransaction(transaction);
     }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TransactionImportResult importTransactions(@RequestParam String username,
+                                                      @RequestBody List<Transaction> transactions) {
+        return transactionImportService.importTransactions(username.trim(), transactions);
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public TransactionImportResult importCsvTransactions(@RequestParam String username,
+                                                         @RequestBody String csv) {
+        return transactionImportService.importCsv(username.trim(), csv);
+    }
 }
 
 
@@ -1,18 +1,26 @@
 package ru.pratice.pet_project.personal_finance_management_system.controllers.transaction;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
 import org.springframework.web.bind.annotation.*;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionExportService;
 import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionGetService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionPage;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionSearchCriteria;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/transactions_get")
 @AllArgsConstructor
 public class TransactionGetController {
     TransactionGetService transactionGetService;
+    TransactionExportService transactionExportService;
 
     @GetMapping(path = "/{id}")
     public Transaction getTransaction(@PathVariable(name = "id") long id) {
@@ -24,17 +32,75 @@ public class TransactionGetController {
         return transactionGetService.getTransactionsByUsername(username.trim());
     }
 
+    @SneakyThrows
+    @GetMapping(path = "/by-username/{username}/export")
+    public void exportTransactionsByUsername(@PathVariable(name = "username") String username,
+                                             @RequestParam(defaultValue = "ndjson") String format,
+                                             HttpServletResponse response) {
+        String trimmedFormat = format.trim().toLowerCase();
+        TransactionExportService.checkFormatForCorrectness(trimmedFormat);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(trimmedFormat.equals("csv") ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"transactions-" + username.trim() + "." + trimmedFormat + "\"");
+        transactionExportService.exportTransactionsByUsername(username.trim(), trimmedFormat,
+                response.getOutputStream());
+    }
+
+    @GetMapping(path = "/by-username/{username}/page")
+    public TransactionPage getPageOfTransactionsByUsername(@PathVariable(name = "username") String username,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "50") int size) {
+        return transactionGetService.getPageOfTransactionsByUsername(username.trim(), cursor, size);
+    }
+
+    @GetMapping("/filtered-by-type/page")
+    public TransactionPage getPageOfTransactionsByType(@RequestParam String type,
+                                                       @RequestParam String username,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int size) {
+        return transactionGetService.getPageOfTransactionsByType(TypeOfTransaction.parse(type), username.trim(),
+                cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<Transaction> searchTransactions(@RequestParam String username,
+                                                @RequestParam(required = false) String type,
+                                                @RequestParam(required = false) Set<Long> categoryIds,
+                                                @RequestParam(required = false) Long minAmount,
+                                                @RequestParam(required = false) Long maxAmount,
+                                                @RequestParam(required = false) LocalDate from,
+                                                @RequestParam(required = false) LocalDate to,
+                                                @RequestParam(required = false) String description,
+                                                @RequestParam(defaultValue = "date") String sortBy,
+                                                @RequestParam(defaultValue = "desc") String direction,
+                                                @RequestParam(defaultValue = "50") int size) {
+        return transactionGetService.searchTransactions(new TransactionSearchCriteria(
+                username.trim(),
+                type == null ? null : TypeOfTransaction.parse(type),
+                categoryIds,
+                minAmount,
+                maxAmount,
+                from,
+                to,
+                description,
+                sortBy.trim(),
+                direction.trim(),
+                size));
+    }
+
     @GetMapping(path = "/by-category")
     public List<Transaction> getTransactionsByCategory(@RequestParam long categoryId,
                                                        @RequestParam String username,
                                                        @RequestParam String type) {
-        return transactionGetService.getTransactionsByCategory(categoryId, username.trim(), type.trim());
+        return transactionGetService.getTransactionsByCategory(categoryId, username.trim(),
+                TypeOfTransaction.parse(type));
     }
 
     @GetMapping("/filtered-by-type")
     public List<Transaction> getFilteredTransactionsByType(@RequestParam String type,
                                                            @RequestParam String username) {
-        return transactionGetService.getTransactionsByType(type.trim(), username.trim());
+        return transactionGetService.getTransactionsByType(TypeOfTransaction.parse(type), username.trim());
     }
 
     @GetMapping("/filtered-by-month")
@@ -43,7 +109,8 @@ public class TransactionGetController {
                                                             @RequestParam(required = false) short minMonth,
                                                             @RequestParam(required = false) short maxMonth,
                                                             @RequestParam int year) {
-        return transactionGetService.getFilteredByMonthsTransactions(type.trim(), username.trim(), minMonth, maxMonth, year);
+        return transactionGetService.getFilteredByMonthsTransactions(TypeOfTransaction.parse(type), username.trim(),
+                minMonth, maxMonth, year);
     }
 
     @GetMapping("/filtered-by-amount")
@@ -51,14 +118,25 @@ public class TransactionGetController {
                                                              @RequestParam String type,
                                                              @RequestParam(required = false) long minAmount,
                                                              @RequestParam long maxAmount) {
-        return transactionGetService.getFilteredByAmountTransactions(type.trim(), username.trim(), minAmount, maxAmount);
+        return transactionGetService.getFilteredByAmountTransactions(TypeOfTransaction.parse(type), username.trim(),
+                minAmount, maxAmount);
     }
 
     @GetMapping("/filtered-_by-_date")
     public List<Transaction> getFilteredByDateTransactions(@RequestParam String username,
                                                            @RequestParam String type,
                                                            @RequestParam LocalDate date) {
-        return transactionGetService.getTransactionsByDate(username.trim(), type.trim(), date);
+        return transactionGetService.getTransactionsByDate(username.trim(), TypeOfTransaction.parse(type), date);
+    }
+
+    @GetMapping("/filtered-by-date-range")
+    public List<Transaction> getFilteredByDateRangeTransactions(@RequestParam String username,
+                                                                @RequestParam String type,
+                                                                @RequestParam LocalDate from,
+                                                                @RequestParam LocalDate to,
+                                                                @RequestParam(required = false) Long categoryId) {
+        return transactionGetService.getTransactionsByDateRange(TypeOfTransaction.parse(type), username.trim(), from,
+                to, categoryId);
     }
 
     @GetMapping("/filtered-_by-_date-_and-_category")
@@ -66,7 +144,8 @@ public class TransactionGetController {
                                                                       @RequestParam String type,
                                                                       @RequestParam LocalDate date,
                                                                       @RequestParam long categoryId) {
-        return transactionGetService.getTransactionsByCategoryAndDate(username.trim(), type.trim(), date, categoryId);
+        return transactionGetService.getTransactionsByCategoryAndDate(username.trim(), TypeOfTransaction.parse(type),
+                date, categoryId);
     }
 
     @GetMapping("/filtered-_by-_month-_and-_category")
@@ -76,7 +155,7 @@ public class TransactionGetController {
                                                                        @RequestParam(required = false) short maxMonth,
                                                                        @RequestParam int year,
                                                                        @RequestParam long categoryId) {
-        return transactionGetService.getFilteredByMonthsTransactions(type.trim(),
+        return transactionGetService.getFilteredByMonthsTransactions(TypeOfTransaction.parse(type),
                 username.trim(),
                 minMonth,
                 maxMonth,
@@ -88,7 +167,8 @@ public class TransactionGetController {
     public List<Transaction> getSortedByAmountTransactions(@RequestParam String username,
                                                            @RequestParam String type,
                                                            @RequestParam(required = false) boolean isIncreasedSort) {
-        return transactionGetService.getSortedByAmountTransactions(username.trim(), type.trim(), isIncreasedSort);
+        return transactionGetService.getSortedByAmountTransactions(username.trim(), TypeOfTransaction.parse(type),
+                isIncreasedSort);
     }
 
     @GetMapping("/limited-number-of-transactions")
@@ -96,6 +176,7 @@ public class TransactionGetController {
                                                             @RequestParam String type,
                                                             @RequestParam int lowLimit,
                                                             @RequestParam int highLimit) {
-        return transactionGetService.getLimitedNumberOfTransactions(username.trim(), type.trim(), lowLimit, highLimit);
+        return transactionGetService.getLimitedNumberOfTransactions(username.trim(), TypeOfTransaction.parse(type),
+                lowLimit, highLimit);
     }
 }
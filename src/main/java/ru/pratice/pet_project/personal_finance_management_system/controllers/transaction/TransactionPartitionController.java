@@ -0,0 +1,30 @@
+package ru.pratice.pet_project.personal_finance_management_system.controllers.transaction;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionPartitionManager;
+
+import java.util.List;
+
+//служебные endpoints
+@RestController
+@RequestMapping("api/transactions/partitions")
+@AllArgsConstructor
+public class TransactionPartitionController {
+    TransactionPartitionManager transactionPartitionManager;
+
+    @GetMapping
+    public List<TransactionPartitionManager.Partition> getPartitions() {
+        return transactionPartitionManager.getPartitions();
+    }
+
+    @PostMapping("/{name}/detach")
+    public void detachPartition(@PathVariable(name = "name") String name) {
+        transactionPartitionManager.detachPartition(name.trim());
+    }
+
+    @PostMapping("/{name}/attach")
+    public void attachPartition(@PathVariable(name = "name") String name) {
+        transactionPartitionManager.attachPartition(name.trim());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.pratice.pet_project.personal_finance_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.lang.NonNull;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@SuppressWarnings("ALL")
+@Entity
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @NonNull
+    @Column(nullable = false)
+    String recipient;
+
+    @NonNull
+    @Column(nullable = false)
+    String header;
+
+    @NonNull
+    @Column(nullable = false, columnDefinition = "text")
+    String content;
+
+    @NonNull
+    @Column(nullable = false)
+    String status;
+
+    @Column(nullable = false)
+    int attempts;
+
+    @NonNull
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    @NonNull
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    String lastError;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        EmailOutboxMessage that = (EmailOutboxMessage) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
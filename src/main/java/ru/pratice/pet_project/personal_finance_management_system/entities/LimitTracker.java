@@ -13,15 +13,15 @@ import java.util.Objects;
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
-@Table(name = "limits")
+@Table(name = "limits", uniqueConstraints = @UniqueConstraint(
+        name = "uk_limits_user_id", columnNames = "user_id"))
 public class LimitTracker {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     Long id;
 
-    @NonNull
-    @Column(nullable = false, unique = true)
-    String username;
+    @Column(name = "user_id", nullable = false)
+    Long userId;
 
     @Column(name = "limit_amount", nullable = false)
     long limitAmount;
@@ -0,0 +1,59 @@
+package ru.pratice.pet_project.personal_finance_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.lang.NonNull;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@SuppressWarnings("ALL")
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "monthly_aggregates", uniqueConstraints = @UniqueConstraint(
+        name = "uk_monthly_aggregates_user_id_period_category_type",
+        columnNames = {"user_id", "period", "category_id", "type"}))
+public class MonthlyAggregate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "user_id", nullable = false)
+    long userId;
+
+    @NonNull
+    @Column(nullable = false)
+    LocalDate period;
+
+    @Column(name = "category_id", nullable = false)
+    long categoryId;
+
+    @NonNull
+    @Column(nullable = false)
+    TypeOfTransaction type;
+
+    @Column(name = "total_amount", nullable = false)
+    long totalAmount;
+
+    @Column(name = "transactions_count", nullable = false)
+    long transactionsCount;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        MonthlyAggregate that = (MonthlyAggregate) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
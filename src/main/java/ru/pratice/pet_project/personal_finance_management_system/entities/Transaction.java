@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.lang.NonNull;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
 
 import java.time.LocalDate;
 import java.util.Objects;
@@ -12,10 +13,17 @@ import java.util.Objects;
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_id_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_transactions_user_id_type_date_id", columnList = "user_id, type, date, id"),
+        @Index(name = "idx_transactions_user_id_type_category_date",
+                columnList = "user_id, type, category_id, date"),
+        @Index(name = "idx_transactions_user_id_type_amount", columnList = "user_id, type, amount")
+})
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     Long id;
 
     @Column(nullable = false)
@@ -27,10 +35,12 @@ public class Transaction {
 
     @NonNull
     @Column(nullable = false)
-    String type;
+    TypeOfTransaction type;
 
-    @NonNull
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
+    Long userId;
+
+    @Transient
     String username;
 
     String description;
@@ -0,0 +1,18 @@
+package ru.pratice.pet_project.personal_finance_management_system.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+@Converter(autoApply = true)
+public class TypeOfTransactionConverter implements AttributeConverter<TypeOfTransaction, Short> {
+    @Override
+    public Short convertToDatabaseColumn(TypeOfTransaction type) {
+        return type == null ? null : type.getCode();
+    }
+
+    @Override
+    public TypeOfTransaction convertToEntityAttribute(Short code) {
+        return code == null ? null : TypeOfTransaction.fromCode(code);
+    }
+}
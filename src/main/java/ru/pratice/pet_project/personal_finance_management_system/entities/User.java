@@ -1,16 +1,20 @@
 package ru.pratice.pet_project.personal_finance_management_system.entities;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.lang.NonNull;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @SuppressWarnings("ALL")
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_deleted_at", columnList = "deleted_at"))
+@SQLRestriction("deleted_at is null")
 @Data
 @NoArgsConstructor
 public class User {
@@ -34,6 +38,10 @@ public class User {
     @Column(nullable = false)
     LocalDate birth;
 
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    LocalDateTime deletedAt;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
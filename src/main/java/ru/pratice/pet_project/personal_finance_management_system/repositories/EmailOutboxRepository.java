@@ -0,0 +1,42 @@
+package ru.pratice.pet_project.personal_finance_management_system.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query(value = "update email_outbox set " +
+            "attempts = attempts + 1, " +
+            "next_attempt_at = localtimestamp + (:leaseMs * interval '1 millisecond') " +
+            "where id in (select id from email_outbox " +
+            "where status = 'PENDING' and next_attempt_at <= localtimestamp " +
+            "order by id limit :batchSize for update skip locked) " +
+            "returning *", nativeQuery = true)
+    List<EmailOutboxMessage> claimPendingMessages(int batchSize, long leaseMs);
+
+    @Modifying
+    @Query(value = "update email_outbox set status = 'SENT', last_error = null where id = :id", nativeQuery = true)
+    void markSent(long id);
+
+    @Modifying
+    @Query(value = "update email_outbox set " +
+            "next_attempt_at = localtimestamp + (:delayMs * interval '1 millisecond'), " +
+            "last_error = :error " +
+            "where id = :id", nativeQuery = true)
+    void scheduleRetry(long id, long delayMs, String error);
+
+    @Modifying
+    @Query(value = "update email_outbox set status = 'FAILED', last_error = :error where id = :id", nativeQuery = true)
+    void markFailed(long id, String error);
+
+    @Modifying
+    @Query(value = "update email_outbox set attempts = attempts - 1, next_attempt_at = localtimestamp " +
+            "where id = :id", nativeQuery = true)
+    void release(long id);
+}
@@ -11,28 +11,28 @@ import java.util.Optional;
 @Repository
 public interface LimitRepository extends JpaRepository<LimitTracker, Long> {
 
-    @Query(value = "select * from limits where username = :username", nativeQuery = true)
-    Optional<LimitTracker> findLimitByUsername(String username);
+    interface LimitTotals {
+        long getTotalAmount();
 
-    @Query(value = "delete from limits where username = :username", nativeQuery = true)
-    @Modifying
-    void deleteLimitsByUsername(String username);
+        long getLimitAmount();
+    }
 
-    @Query(value = "update limits set limit_amount = :limitAmount where id = :id", nativeQuery = true)
-    @Modifying
-    void updateLimitAmount(long id, long limitAmount);
+    @Query(value = "select * from limits where user_id = :userId", nativeQuery = true)
+    Optional<LimitTracker> findLimitByUserId(long userId);
 
-    @Query(value = "update limits set total_amount = total_amount + :totalAmount where username = :username",
-            nativeQuery = true)
-    @Modifying
-    void incrementTotalAmount(String username, long totalAmount);
+    @Query(value = "select l.* from limits l join users u on u.id = l.user_id " +
+            "where l.id = :id and u.deleted_at is null", nativeQuery = true)
+    Optional<LimitTracker> findVisibleLimitById(long id);
 
-    @Query(value = "update limits set total_amount =  total_amount - :totalAmount where username = :username",
-            nativeQuery = true)
+    @Query(value = "delete from limits where user_id = :userId", nativeQuery = true)
     @Modifying
-    void decrementTotalAmount(String username, long totalAmount);
+    void deleteLimitsByUserId(long userId);
 
-    @Query(value = "update limits set username = :username where username = :oldUsername", nativeQuery = true)
+    @Query(value = "update limits set limit_amount = :limitAmount where id = :id", nativeQuery = true)
     @Modifying
-    void updateUsername(String username, String oldUsername);
+    void updateLimitAmount(long id, long limitAmount);
+
+    @Query(value = "update limits set total_amount = total_amount + :delta where user_id = :userId " +
+            "returning total_amount as totalAmount, limit_amount as limitAmount", nativeQuery = true)
+    Optional<LimitTotals> addToTotalAmount(long userId, long delta);
 }
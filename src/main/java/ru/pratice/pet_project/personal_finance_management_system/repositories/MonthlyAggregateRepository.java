@@ -0,0 +1,78 @@
+package ru.pratice.pet_project.personal_finance_management_system.repositories;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.pratice.pet_project.personal_finance_management_system.entities.MonthlyAggregate;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlyAggregateRepository extends JpaRepository<MonthlyAggregate, Long> {
+
+    interface MonthlyTotal {
+        LocalDate getPeriod();
+
+        @JsonIgnore
+        short getTypeCode();
+
+        default TypeOfTransaction getType() {
+            return TypeOfTransaction.fromCode(getTypeCode());
+        }
+
+        long getTotalAmount();
+
+        long getTransactionsCount();
+    }
+
+    @Modifying
+    @Query(value = "insert into monthly_aggregates " +
+            "(user_id, period, category_id, type, total_amount, transactions_count) " +
+            "values (:userId, :period, :categoryId, :#{#type.code}, :amount, :count) " +
+            "on conflict (user_id, period, category_id, type) do update set " +
+            "total_amount = monthly_aggregates.total_amount + excluded.total_amount, " +
+            "transactions_count = monthly_aggregates.transactions_count + excluded.transactions_count",
+            nativeQuery = true)
+    void applyDelta(long userId, LocalDate period, long categoryId, TypeOfTransaction type, long amount, long count);
+
+    @Query(value = "select * from monthly_aggregates " +
+            "where user_id = :userId and period between :from and :to and transactions_count > 0 " +
+            "order by period, type, category_id", nativeQuery = true)
+    List<MonthlyAggregate> findByUserIdAndPeriod(long userId, LocalDate from, LocalDate to);
+
+    @Query(value = "select * from monthly_aggregates " +
+            "where user_id = :userId and type = :#{#type.code} and period between :from and :to " +
+            "and transactions_count > 0 " +
+            "order by period, category_id", nativeQuery = true)
+    List<MonthlyAggregate> findByUserIdAndTypeAndPeriod(long userId, TypeOfTransaction type,
+                                                        LocalDate from, LocalDate to);
+
+    @Query(value = "select period as period, type as typeCode, " +
+            "sum(total_amount) as totalAmount, sum(transactions_count) as transactionsCount " +
+            "from monthly_aggregates " +
+            "where user_id = :userId and period between :from and :to " +
+            "group by period, type order by period, type", nativeQuery = true)
+    List<MonthlyTotal> findMonthlyTotals(long userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "delete from monthly_aggregates where user_id = :userId", nativeQuery = true)
+    void deleteByUserId(long userId);
+
+    @Modifying
+    @Query(value = "delete from monthly_aggregates where user_id = :userId and type = :#{#type.code}",
+            nativeQuery = true)
+    void deleteByUserIdAndType(long userId, TypeOfTransaction type);
+
+    @Modifying
+    @Query(value = "insert into monthly_aggregates " +
+            "(user_id, period, category_id, type, total_amount, transactions_count) " +
+            "select user_id, cast(date_trunc('month', date) as date), category_id, type, sum(amount), count(*) " +
+            "from transactions where user_id = :userId " +
+            "group by user_id, cast(date_trunc('month', date) as date), category_id, type",
+            nativeQuery = true)
+    void rebuildForUserId(long userId);
+}
@@ -0,0 +1,89 @@
+package ru.pratice.pet_project.personal_finance_management_system.repositories;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Repository
+@ConditionalOnProperty(name = "transactions.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionRepository {
+    static String SELECT_WITH_CATEGORY = "select t.id, t.amount, t.date, t.type, t.user_id, t.description, " +
+            "t.category_id, c.name as category_name from transactions t join categories c on c.id = t.category_id ";
+    DatabaseClient databaseClient;
+    int fetchSize;
+
+    public ReactiveTransactionRepository(DatabaseClient databaseClient,
+                                         @Value("${transactions.reactive.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Long> findUserIdByUsername(String username) {
+        return databaseClient.sql("select id from users where username = :username and deleted_at is null")
+                .bind("username", username)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Flux<Transaction> findTransactionsByUserId(long userId) {
+        return query(SELECT_WITH_CATEGORY + "where t.user_id = :userId order by t.date desc, t.id desc",
+                Map.of("userId", userId));
+    }
+
+    public Flux<Transaction> findTransactionsByType(long userId, TypeOfTransaction type) {
+        return query(SELECT_WITH_CATEGORY + "where t.user_id = :userId and t.type = :type " +
+                "order by t.date desc, t.id desc", Map.of("userId", userId, "type", type.getCode()));
+    }
+
+    public Flux<Transaction> findTransactionsByCategoryId(long userId, TypeOfTransaction type, long categoryId) {
+        return query(SELECT_WITH_CATEGORY + "where t.user_id = :userId and t.type = :type " +
+                        "and t.category_id = :categoryId order by t.date desc, t.id desc",
+                Map.of("userId", userId, "type", type.getCode(), "categoryId", categoryId));
+    }
+
+    public Flux<Transaction> findTransactionsByDateRange(long userId, TypeOfTransaction type,
+                                                         LocalDate from, LocalDate to) {
+        return query(SELECT_WITH_CATEGORY + "where t.user_id = :userId and t.type = :type " +
+                        "and t.date between :from and :to order by t.date, t.id",
+                Map.of("userId", userId, "type", type.getCode(), "from", from, "to", to));
+    }
+
+    public Flux<Transaction> filteredByAmountTransactions(long userId, TypeOfTransaction type,
+                                                          long minAmount, long maxAmount) {
+        return query(SELECT_WITH_CATEGORY + "where t.user_id = :userId and t.type = :type " +
+                        "and t.amount between :minAmount and :maxAmount order by t.date desc, t.id desc",
+                Map.of("userId", userId, "type", type.getCode(), "minAmount", minAmount, "maxAmount", maxAmount));
+    }
+
+    private Flux<Transaction> query(String sql, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)));
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(this::toTransaction).all();
+    }
+
+    private Transaction toTransaction(Readable row) {
+        Transaction transaction = new Transaction();
+        transaction.setId(row.get("id", Long.class));
+        transaction.setAmount(row.get("amount", Long.class));
+        transaction.setDate(row.get("date", LocalDate.class));
+        transaction.setType(TypeOfTransaction.fromCode(row.get("type", Short.class)));
+        transaction.setUserId(row.get("user_id", Long.class));
+        transaction.setDescription(row.get("description", String.class));
+        transaction.setCategory(new Category(row.get("category_id", Long.class),
+                row.get("category_name", String.class)));
+        return transaction;
+    }
+}
@@ -1,97 +1,194 @@
 package ru.pratice.pet_project.personal_finance_management_system.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
-import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
+    String PREVIOUS_SNAPSHOT = "returning previous.amount as amount, previous.date as date, " +
+            "previous.type as typeCode, previous.user_id as userId, previous.category_id as categoryId";
+    String VISIBLE_PREVIOUS = "with previous as (select t.* from transactions t join users u on u.id = t.user_id " +
+            "where t.id = :id and u.deleted_at is null for update of t for share of u) ";
+    String REMOVED_TOTALS = "returning date, category_id, type, amount) " +
+            "select cast(date_trunc('month', date) as date) as period, category_id as categoryId, " +
+            "type as typeCode, cast(sum(amount) as bigint) as amount, count(*) as removedCount " +
+            "from removed group by 1, 2, 3";
 
-    @Query(value = "select * from transactions where username = :username", nativeQuery = true)
-    List<Transaction> findTransactionsByUsername(String username);
+    interface TransactionSnapshot {
+        long getAmount();
 
-    @Query(value = "select * from transactions " +
-            "where category_id = :category and username = :name and type = :type", nativeQuery = true)
-    List<Transaction> findTransactionByCategoryId(Category category,
-                                                  String username,
-                                                  String type);
+        LocalDate getDate();
 
-    @Query(value = "select * from transactions where type = :type and username = :username", nativeQuery = true)
-    List<Transaction> findTransactionsByType(String username, String type);
+        short getTypeCode();
 
-    @Query(value = "select * from transactions where type = :type and username = :username and date = :date", nativeQuery = true)
-    List<Transaction> findTransactionByDate(String username, String type, LocalDate date);
+        default TypeOfTransaction getType() {
+            return TypeOfTransaction.fromCode(getTypeCode());
+        }
 
-    @Query(value = "select * from transactions " +
-            "where type = :type and username = :username and date = :date and category_id = :category", nativeQuery = true)
-    List<Transaction> findTransactionByCategoryIdAndDate(String username,
-                                                         String type,
-                                                         LocalDate date,
-                                                         Category category);
+        long getUserId();
 
-    @Query(value = "select sum(amount) from transactions where username = :username and type = :type", nativeQuery = true)
-    long sumOfTransactionsAmountWithTypeConsumption(String username, String type);
+        long getCategoryId();
+    }
 
-    @Query(value = "select * from transactions where type = :type and username = :username order by amount", nativeQuery = true)
-    List<Transaction> findAndSortedByAscTransactionsByType(String username, String type);
+    interface RemovedTotals {
+        LocalDate getPeriod();
 
-    @Query(value = "select * from transactions where type = :type and username = :username order by amount desc", nativeQuery = true)
-    List<Transaction> findAndSortedByDescTransactionsByType(String username, String type);
+        long getCategoryId();
 
-    @Query(value = "select * from transactions " +
-            "where type = :type and " +
-            "username = :username and " +
-            "amount between :minAmount and :maxAmount ", nativeQuery = true)
-    List<Transaction> filteredByAmountTransactions(String username, String type, long minAmount, long maxAmount);
+        short getTypeCode();
 
-    @Modifying
-    @Query(value = "delete from transactions where username = :username", nativeQuery = true)
-    void deleteTransactionByUsername(String username);
+        default TypeOfTransaction getType() {
+            return TypeOfTransaction.fromCode(getTypeCode());
+        }
 
-    @Modifying
-    @Query(value = "delete from transactions where type = :type and username = :username", nativeQuery = true)
-    void deleteTransactionByType(String type, String username);
+        long getAmount();
 
-    @Modifying
-    @Query(value = "update transactions set " +
-            "type = :type, " +
-            "username = :username, " +
-            "amount = :amount, " +
-            "category_id = :category, " +
-            "description = :description, " +
-            "date = :date " +
-            "where id = :id", nativeQuery = true)
-    void update(Long id,
-                LocalDate date,
-                String description,
-                String username,
-                String type,
-                long amount,
-                long category);
+        long getRemovedCount();
+    }
 
-    @Modifying
-    @Query(value = "update transactions set amount = :amount where id = :id", nativeQuery = true)
-    void updateAmount(long id, long amount);
+    @Query(value = "select * from transactions where user_id = :userId", nativeQuery = true)
+    List<Transaction> findTransactionsByUserId(long userId);
 
-    @Modifying
-    @Query(value = "update transactions set date = :date where id = :id", nativeQuery = true)
-    void updateDate(long id, LocalDate date);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "select * from transactions where user_id = :userId order by date, id", nativeQuery = true)
+    Stream<Transaction> streamTransactionsByUserId(long userId);
 
-    @Modifying
-    @Query(value = "update transactions set description = :description where id = :id", nativeQuery = true)
-    void updateDescription(long id, String description);
+    @Query(value = "select * from transactions where user_id = :userId " +
+            "order by date desc, id desc limit :size", nativeQuery = true)
+    List<Transaction> findFirstPageByUserId(long userId, int size);
 
-    @Modifying
-    @Query(value = "update transactions set category_id = :categoryId where id = :id", nativeQuery = true)
-    void updateCategoryId(long id, long categoryId);
+    @Query(value = "select * from transactions where user_id = :userId " +
+            "and date <= :date and (date, id) < (:date, :id) " +
+            "order by date desc, id desc limit :size", nativeQuery = true)
+    List<Transaction> findNextPageByUserId(long userId, LocalDate date, long id, int size);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId " +
+            "order by date desc, id desc limit :size", nativeQuery = true)
+    List<Transaction> findFirstPageByType(long userId, TypeOfTransaction type, int size);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId " +
+            "and date <= :date and (date, id) < (:date, :id) " +
+            "order by date desc, id desc limit :size", nativeQuery = true)
+    List<Transaction> findNextPageByType(long userId, TypeOfTransaction type, LocalDate date, long id, int size);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId " +
+            "order by date desc, id desc offset :offset limit :limit", nativeQuery = true)
+    List<Transaction> findTransactionsByTypeWithOffset(long userId, TypeOfTransaction type, int offset, int limit);
+
+    @Query(value = "select * from transactions " +
+            "where category_id = :categoryId and user_id = :userId and type = :#{#type.code}", nativeQuery = true)
+    List<Transaction> findTransactionByCategoryId(long categoryId,
+                                                  long userId,
+                                                  TypeOfTransaction type);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId", nativeQuery = true)
+    List<Transaction> findTransactionsByType(long userId, TypeOfTransaction type);
+
+    @Query(value = "select * from transactions " +
+            "where type = :#{#type.code} and user_id = :userId and date between :from and :to " +
+            "order by date, id", nativeQuery = true)
+    List<Transaction> findTransactionsByDateRange(long userId, TypeOfTransaction type, LocalDate from, LocalDate to);
+
+    @Query(value = "select * from transactions " +
+            "where type = :#{#type.code} and user_id = :userId and category_id = :categoryId " +
+            "and date between :from and :to " +
+            "order by date, id", nativeQuery = true)
+    List<Transaction> findTransactionsByCategoryIdAndDateRange(long userId,
+                                                               TypeOfTransaction type,
+                                                               long categoryId,
+                                                               LocalDate from,
+                                                               LocalDate to);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId " +
+            "order by amount", nativeQuery = true)
+    List<Transaction> findAndSortedByAscTransactionsByType(long userId, TypeOfTransaction type);
+
+    @Query(value = "select * from transactions where type = :#{#type.code} and user_id = :userId " +
+            "order by amount desc", nativeQuery = true)
+    List<Transaction> findAndSortedByDescTransactionsByType(long userId, TypeOfTransaction type);
+
+    @Query(value = "select * from transactions " +
+            "where type = :#{#type.code} and " +
+            "user_id = :userId and " +
+            "amount between :minAmount and :maxAmount ", nativeQuery = true)
+    List<Transaction> filteredByAmountTransactions(long userId, TypeOfTransaction type, long minAmount, long maxAmount);
 
     @Modifying
-    @Query(value = "update transactions set username = :newUsername where username = :username", nativeQuery = true)
-    void updateName(String newUsername, String username);
+    @Query(value = "delete from transactions where user_id = :userId", nativeQuery = true)
+    void deleteTransactionByUserId(long userId);
+
+    @Query(value = "select count(*) from transactions where user_id = :userId", nativeQuery = true)
+    long countTransactionsByUserId(long userId);
+
+    @Query(value = "with removed as (delete from transactions where id in (" +
+            "select id from transactions where user_id = :userId limit :batchSize) " +
+            REMOVED_TOTALS, nativeQuery = true)
+    List<RemovedTotals> deleteChunkByUserId(long userId, int batchSize);
+
+    @Query(value = "with removed as (delete from transactions where id in (" +
+            "select id from transactions where user_id = :userId and type = :#{#type.code} limit :batchSize) " +
+            REMOVED_TOTALS, nativeQuery = true)
+    List<RemovedTotals> deleteChunkByType(long userId, TypeOfTransaction type, int batchSize);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "update transactions t set " +
+            "type = :#{#type.code}, " +
+            "user_id = :userId, " +
+            "amount = :amount, " +
+            "category_id = :category, " +
+            "description = :description, " +
+            "date = :date " +
+            "from previous where t.id = previous.id " +
+            PREVIOUS_SNAPSHOT, nativeQuery = true)
+    Optional<TransactionSnapshot> update(Long id,
+                                         LocalDate date,
+                                         String description,
+                                         long userId,
+                                         TypeOfTransaction type,
+                                         long amount,
+                                         long category);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "update transactions t set amount = :amount " +
+            "from previous where t.id = previous.id " +
+            PREVIOUS_SNAPSHOT, nativeQuery = true)
+    Optional<TransactionSnapshot> updateAmount(long id, long amount);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "update transactions t set date = :date " +
+            "from previous where t.id = previous.id " +
+            PREVIOUS_SNAPSHOT, nativeQuery = true)
+    Optional<TransactionSnapshot> updateDate(long id, LocalDate date);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "update transactions t set description = :description " +
+            "from previous where t.id = previous.id returning t.user_id", nativeQuery = true)
+    Optional<Long> updateDescription(long id, String description);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "update transactions t set category_id = :categoryId " +
+            "from previous where t.id = previous.id " +
+            PREVIOUS_SNAPSHOT, nativeQuery = true)
+    Optional<TransactionSnapshot> updateCategoryId(long id, long categoryId);
+
+    @Query(value = VISIBLE_PREVIOUS +
+            "delete from transactions t using previous where t.id = previous.id " +
+            PREVIOUS_SNAPSHOT, nativeQuery = true)
+    Optional<TransactionSnapshot> deleteReturningPrevious(long id);
 }
@@ -0,0 +1,60 @@
+package ru.pratice.pet_project.personal_finance_management_system.repositories;
+
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> withCategoryFetched() {
+        return (root, query, builder) -> {
+            if (query != null && query.getResultType() == Transaction.class) {
+                root.fetch("category", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Transaction> hasUserId(long userId) {
+        return (root, query, builder) -> builder.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Transaction> hasType(TypeOfTransaction type) {
+        return (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    public static Specification<Transaction> hasCategoryIn(Collection<Long> categoryIds) {
+        return (root, query, builder) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Transaction> hasAmountFrom(long minAmount) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Transaction> hasAmountTo(long maxAmount) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    public static Specification<Transaction> hasDateFrom(LocalDate from) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Transaction> hasDateTo(LocalDate to) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    public static Specification<Transaction> hasDescriptionContaining(String text) {
+        String pattern = "%" + text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.get("description")), pattern, '\\');
+    }
+}
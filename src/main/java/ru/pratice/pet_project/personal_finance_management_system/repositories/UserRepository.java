@@ -7,13 +7,25 @@ import org.springframework.stereotype.Repository;
 import ru.pratice.pet_project.personal_finance_management_system.entities.User;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    @Query(value = "select * from users where username = :name", nativeQuery = true)
+    @Query(value = "select * from users where username = :name and deleted_at is null", nativeQuery = true)
     Optional<User> findUserByName(String name);
 
+    @Modifying
+    @Query(value = "update users set deleted_at = now() where id = :id and deleted_at is null", nativeQuery = true)
+    void markDeleted(long id);
+
+    @Query(value = "select id from users where deleted_at is not null order by deleted_at, id limit :limit",
+            nativeQuery = true)
+    List<Long> findDeletedUserIds(int limit);
+
+    @Query(value = "select count(*) from users where deleted_at is not null", nativeQuery = true)
+    long countDeletedUsers();
+
     @Modifying
     @Query(value = "delete from users where id= :id", nativeQuery = true)
     void deleteUserById(long id);
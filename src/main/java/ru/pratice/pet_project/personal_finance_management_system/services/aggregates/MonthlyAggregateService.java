@@ -0,0 +1,92 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.aggregates;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.pratice.pet_project.personal_finance_management_system.entities.MonthlyAggregate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.MonthlyAggregateRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.MonthlyAggregateRepository.MonthlyTotal;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.TransactionSnapshot;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class MonthlyAggregateService {
+    MonthlyAggregateRepository monthlyAggregateRepository;
+    UserLookupCache userLookupCache;
+    ReadYourWritesTracker readYourWritesTracker;
+
+    public void add(Transaction transaction) {
+        applyDelta(transaction.getUserId(), transaction.getDate(), transaction.getCategory().getId(),
+                transaction.getType(), transaction.getAmount(), 1);
+    }
+
+    public void remove(Transaction transaction) {
+        applyDelta(transaction.getUserId(), transaction.getDate(), transaction.getCategory().getId(),
+                transaction.getType(), -transaction.getAmount(), -1);
+    }
+
+    public void remove(TransactionSnapshot snapshot) {
+        applyDelta(snapshot.getUserId(), snapshot.getDate(), snapshot.getCategoryId(),
+                snapshot.getType(), -snapshot.getAmount(), -1);
+    }
+
+    public void applyDelta(long userId, LocalDate date, long categoryId, TypeOfTransaction type,
+                           long amount, long count) {
+        monthlyAggregateRepository.applyDelta(userId, date.withDayOfMonth(1), categoryId, type, amount, count);
+        readYourWritesTracker.recordWrite(userId);
+    }
+
+    public void deleteByUserId(long userId) {
+        monthlyAggregateRepository.deleteByUserId(userId);
+    }
+
+    public void deleteByUserIdAndType(long userId, TypeOfTransaction type) {
+        monthlyAggregateRepository.deleteByUserIdAndType(userId, type);
+    }
+
+    @Transactional
+    public void rebuild(String username) {
+        long userId = userLookupCache.getByUsername(username).id();
+        monthlyAggregateRepository.deleteByUserId(userId);
+        monthlyAggregateRepository.rebuildForUserId(userId);
+        log.info("Rebuilding monthly aggregates for user {}", username);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlyAggregate> getMonthlyAggregates(String username, TypeOfTransaction type,
+                                                       YearMonth from, YearMonth to) {
+        checkPeriodForCorrectness(from, to);
+        long userId = userLookupCache.getByUsername(username).id();
+        readYourWritesTracker.routeReadsOf(userId);
+        if (type == null) {
+            return monthlyAggregateRepository.findByUserIdAndPeriod(userId, from.atDay(1), to.atDay(1));
+        }
+        return monthlyAggregateRepository.findByUserIdAndTypeAndPeriod(userId, type,
+                from.atDay(1), to.atDay(1));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlyTotal> getMonthlyTotals(String username, YearMonth from, YearMonth to) {
+        checkPeriodForCorrectness(from, to);
+        long userId = userLookupCache.getByUsername(username).id();
+        readYourWritesTracker.routeReadsOf(userId);
+        return monthlyAggregateRepository.findMonthlyTotals(userId, from.atDay(1), to.atDay(1));
+    }
+
+    private void checkPeriodForCorrectness(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("The start month should not be after the end month");
+        }
+    }
+}
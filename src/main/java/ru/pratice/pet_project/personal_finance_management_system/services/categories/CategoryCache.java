@@ -0,0 +1,96 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.categories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+@Component
+public class CategoryCache {
+    Map<Long, Category> categoriesById = new ConcurrentHashMap<>();
+    AtomicReference<List<Category>> allCategories = new AtomicReference<>();
+    AtomicLong generation = new AtomicLong();
+    Counter hits;
+    Counter misses;
+    int maxSize;
+
+    public CategoryCache(@Value("${categories.cache.max-size:1000}") int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("categories.cache.gets").tag("result", "hit")
+                .description("Category lookups by cache result")
+                .register(meterRegistry);
+        this.misses = Counter.builder("categories.cache.gets").tag("result", "miss")
+                .description("Category lookups by cache result")
+                .register(meterRegistry);
+        Gauge.builder("categories.cache.size", categoriesById, Map::size)
+                .description("Categories cached by id")
+                .register(meterRegistry);
+    }
+
+    public record Stats(long hits, long misses, int size) {
+    }
+
+    public Category get(long id, LongFunction<Category> loader) {
+        Category category = categoriesById.get(id);
+        if (category != null) {
+            hits.increment();
+            return category;
+        }
+        misses.increment();
+        long loadedGeneration = generation.get();
+        category = loader.apply(id);
+        if (categoriesById.size() < maxSize && loadedGeneration == generation.get()) {
+            categoriesById.putIfAbsent(id, category);
+        }
+        return category;
+    }
+
+    public List<Category> getAll(Supplier<List<Category>> loader) {
+        List<Category> categories = allCategories.get();
+        if (categories != null) {
+            hits.increment();
+            return categories;
+        }
+        misses.increment();
+        long loadedGeneration = generation.get();
+        categories = List.copyOf(loader.get());
+        if (loadedGeneration == generation.get()) {
+            allCategories.compareAndSet(null, categories);
+        }
+        return categories;
+    }
+
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        categoriesById.clear();
+        allCategories.set(null);
+    }
+
+    public Stats getStats() {
+        return new Stats((long) hits.count(), (long) misses.count(), categoriesById.size());
+    }
+}
@@ -9,26 +9,47 @@ import ru.pratice.pet_project.personal_finance_management_system.repositories.Ca
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidEntityException;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class CategoryService {
     CategoryRepository categoryRepository;
+    CategoryCache categoryCache;
 
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryCache.getAll(categoryRepository::findAll);
     }
 
     public Category getCategoryById(long id) {
-        return categoryRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Category with id: " + id + " not found"));
+        return categoryCache.get(id, categoryId -> categoryRepository.findById(categoryId).orElseThrow(
+                () -> new ResourceNotFoundException("Category with id: " + categoryId + " not found")));
+    }
+
+    public CategoryCache.Stats getCacheStats() {
+        return categoryCache.getStats();
+    }
+
+    public Map<Long, Category> getCategoriesByIds(Collection<Long> ids) {
+        Map<Long, Category> categories = categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!categories.containsKey(id)) {
+                throw new ResourceNotFoundException("Category with id: " + id + " not found");
+            }
+        }
+        return categories;
     }
 
     public void deleteCategoryById(long id) {
         getCategoryById(id);
         categoryRepository.deleteById(id);
+        categoryCache.invalidate();
         log.info("Deleting category with id: {}", id);
     }
 
@@ -41,6 +62,7 @@ public class CategoryService {
         try {
             category.setName(category.getName().trim());
             categoryRepository.save(category);
+            categoryCache.invalidate();
         } catch (Exception e) {
             throw new InvalidEntityException(e.getMessage());
         }
@@ -56,6 +78,7 @@ public class CategoryService {
     private void update(long id, String name) {
         try {
             categoryRepository.update(id, name);
+            categoryCache.invalidate();
         } catch (Exception e) {
             throw new InvalidEntityException(e.getMessage());
         }
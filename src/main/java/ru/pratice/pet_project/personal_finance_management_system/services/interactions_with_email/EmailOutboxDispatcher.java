@@ -0,0 +1,77 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+    EmailOutboxService emailOutboxService;
+    EmailSender emailSender;
+    TaskExecutor emailDeliveryExecutor;
+    int batchSize;
+    int deliveryBatchSize;
+
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                                 EmailSender emailSender,
+                                 @Qualifier("emailDeliveryExecutor") TaskExecutor emailDeliveryExecutor,
+                                 @Value("${email.outbox.batch-size:20}") int batchSize,
+                                 @Value("${email.delivery.batch-size:10}") int deliveryBatchSize) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailSender = emailSender;
+        this.emailDeliveryExecutor = emailDeliveryExecutor;
+        this.batchSize = batchSize;
+        this.deliveryBatchSize = deliveryBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-delay-ms:1000}")
+    public void dispatchPendingEmails() {
+        List<EmailOutboxMessage> messages = emailOutboxService.claimPendingMessages(batchSize);
+        if (emailSender.isPooled()) {
+            dispatchInBatches(messages);
+            return;
+        }
+        for (EmailOutboxMessage message : messages) {
+            try {
+                emailDeliveryExecutor.execute(() -> deliver(message));
+            } catch (RejectedExecutionException e) {
+                emailOutboxService.release(message.getId());
+            }
+        }
+    }
+
+    private void dispatchInBatches(List<EmailOutboxMessage> messages) {
+        for (int from = 0; from < messages.size(); from += deliveryBatchSize) {
+            List<EmailOutboxMessage> batch = messages.subList(from,
+                    Math.min(from + deliveryBatchSize, messages.size()));
+            try {
+                emailDeliveryExecutor.execute(() -> deliverBatch(batch));
+            } catch (RejectedExecutionException e) {
+                batch.forEach(message -> emailOutboxService.release(message.getId()));
+            }
+        }
+    }
+
+    void deliverBatch(List<EmailOutboxMessage> batch) {
+        emailSender.sendEmails(batch,
+                message -> emailOutboxService.markSent(message.getId()),
+                emailOutboxService::markFailed);
+    }
+
+    void deliver(EmailOutboxMessage message) {
+        try {
+            emailSender.sendEmail(message.getHeader(), message.getContent(), message.getRecipient());
+            emailOutboxService.markSent(message.getId());
+        } catch (Exception e) {
+            emailOutboxService.markFailed(message, e);
+        }
+    }
+}
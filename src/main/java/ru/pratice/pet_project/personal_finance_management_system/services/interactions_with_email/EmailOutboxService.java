@@ -0,0 +1,99 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.EmailOutboxRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.Email;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+public class EmailOutboxService {
+    static int MAX_ERROR_LENGTH = 1000;
+    EmailOutboxRepository emailOutboxRepository;
+    int maxAttempts;
+    long backoffMs;
+    long maxBackoffMs;
+    long leaseMs;
+    Counter emailsSent;
+    Counter emailsRetried;
+    Counter emailsFailed;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+                              @Value("${email.outbox.backoff-ms:30000}") long backoffMs,
+                              @Value("${email.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                              @Value("${email.outbox.lease-ms:300000}") long leaseMs,
+                              MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        this.emailsSent = Counter.builder("emails.sent").register(meterRegistry);
+        this.emailsRetried = Counter.builder("emails.failed").tag("final", "false").register(meterRegistry);
+        this.emailsFailed = Counter.builder("emails.failed").tag("final", "true").register(meterRegistry);
+    }
+
+    public void enqueue(Email email, String toEmail) {
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(toEmail)
+                .header(email.getHeader())
+                .content(email.getContent())
+                .status(EmailOutboxStatus.PENDING.name())
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        log.info("Email to {} queued for delivery", toEmail);
+    }
+
+    @Transactional
+    public List<EmailOutboxMessage> claimPendingMessages(int batchSize) {
+        return emailOutboxRepository.claimPendingMessages(batchSize, leaseMs);
+    }
+
+    @Transactional
+    public void markSent(long id) {
+        emailOutboxRepository.markSent(id);
+        emailsSent.increment();
+    }
+
+    @Transactional
+    public void markFailed(EmailOutboxMessage message, Exception e) {
+        String error = truncate(String.valueOf(e.getMessage()));
+        if (message.getAttempts() >= maxAttempts) {
+            emailOutboxRepository.markFailed(message.getId(), error);
+            emailsFailed.increment();
+            log.error("Email {} to {} failed after {} attempts", message.getId(), message.getRecipient(),
+                    message.getAttempts(), e);
+            return;
+        }
+        long delayMs = backoffFor(message.getAttempts());
+        emailOutboxRepository.scheduleRetry(message.getId(), delayMs, error);
+        emailsRetried.increment();
+        log.warn("Email {} to {} failed, retry in {} ms", message.getId(), message.getRecipient(), delayMs, e);
+    }
+
+    @Transactional
+    public void release(long id) {
+        emailOutboxRepository.release(id);
+    }
+
+    long backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(backoffMs << exponent, maxBackoffMs);
+    }
+
+    private String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
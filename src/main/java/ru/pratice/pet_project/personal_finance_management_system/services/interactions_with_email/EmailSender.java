@@ -1,37 +1,99 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
-import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.lang.Nullable;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
 import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.Email;
 
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 
 @Component
-@AllArgsConstructor
 @Slf4j
 public class EmailSender {
     static String EMAIL_FROM = "financemanagmeentsystem@gmail.com";
     JavaMailSender mailSender;
+    SmtpTransportPool transportPool;
+
+    public EmailSender(JavaMailSender mailSender, @Nullable SmtpTransportPool transportPool) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+    }
 
-    @SneakyThrows
     public void sendEmail(Email email, String toEmail) {
-        MimeMessage message = createMimeMessage(email, toEmail);
+        sendEmail(email.getHeader(), email.getContent(), toEmail);
+    }
+
+    @SneakyThrows
+    public void sendEmail(String header, String content, String toEmail) {
+        MimeMessage message = createMimeMessage(header, content, toEmail);
         mailSender.send(message);
         log.info("Email sent to {}", toEmail);
     }
 
-    private MimeMessage createMimeMessage(Email email, String toEmail) throws Exception {
+    public boolean isPooled() {
+        return transportPool != null;
+    }
+
+    public void sendEmails(List<EmailOutboxMessage> messages,
+                           Consumer<EmailOutboxMessage> onSent,
+                           BiConsumer<EmailOutboxMessage, Exception> onFailed) {
+        Transport transport = null;
+        try {
+            for (EmailOutboxMessage message : messages) {
+                try {
+                    MimeMessage mimeMessage = createMimeMessage(message.getHeader(), message.getContent(),
+                            message.getRecipient());
+                    mimeMessage.setSentDate(new Date());
+                    mimeMessage.saveChanges();
+                    if (transport == null) {
+                        transport = transportPool.borrow();
+                    }
+                    try {
+                        transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                    } catch (MessagingException e) {
+                        if (transport.isConnected()) {
+                            throw e;
+                        }
+                        log.warn("SMTP connection lost, reconnecting: {}", e.getMessage());
+                        transportPool.release(transport, false);
+                        transport = null;
+                        transport = transportPool.borrow();
+                        transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                    }
+                    onSent.accept(message);
+                    log.info("Email sent to {}", message.getRecipient());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    onFailed.accept(message, e);
+                } catch (Exception e) {
+                    onFailed.accept(message, e);
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport, transport.isConnected());
+            }
+        }
+    }
+
+    private MimeMessage createMimeMessage(String header, String content, String toEmail) throws Exception {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
         helper.setFrom(EMAIL_FROM);
         helper.setTo(toEmail);
-        helper.setSubject(email.getHeader());
-        helper.setText(email.getContent(), true);
+        helper.setSubject(header);
+        helper.setText(content, true);
         return mimeMessage;
     }
 }
-
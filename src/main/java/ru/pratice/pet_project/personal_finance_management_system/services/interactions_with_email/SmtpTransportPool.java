@@ -0,0 +1,121 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "email.delivery.mode", havingValue = "pooled")
+public class SmtpTransportPool {
+    JavaMailSenderImpl mailSender;
+    long idleTimeoutMs;
+    long borrowTimeoutMs;
+    Semaphore permits;
+    BlockingDeque<IdleTransport> idleTransports = new LinkedBlockingDeque<>();
+    LongAdder connectionsOpened = new LongAdder();
+
+    private record IdleTransport(Transport transport, long releasedAt) {
+    }
+
+    public record Stats(long connectionsOpened, int idle, int available) {
+    }
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${email.smtp.pool.size:2}") int size,
+                             @Value("${email.smtp.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${email.smtp.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(size, true);
+    }
+
+    public Transport borrow() throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("No SMTP transport became available within " + borrowTimeoutMs + " ms");
+        }
+        try {
+            IdleTransport idle;
+            while ((idle = idleTransports.pollFirst()) != null) {
+                if (!isExpired(idle, System.currentTimeMillis()) && idle.transport().isConnected()) {
+                    return idle.transport();
+                }
+                close(idle.transport());
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(Transport transport, boolean reusable) {
+        if (reusable) {
+            idleTransports.offerFirst(new IdleTransport(transport, System.currentTimeMillis()));
+        } else {
+            close(transport);
+        }
+        permits.release();
+    }
+
+    private Transport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        connectionsOpened.increment();
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    private boolean isExpired(IdleTransport idle, long now) {
+        return now - idle.releasedAt() >= idleTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${email.smtp.pool.idle-timeout-ms:60000}")
+    public void closeExpiredTransports() {
+        long now = System.currentTimeMillis();
+        Iterator<IdleTransport> iterator = idleTransports.iterator();
+        while (iterator.hasNext()) {
+            IdleTransport idle = iterator.next();
+            if (isExpired(idle, now) && idleTransports.removeFirstOccurrence(idle)) {
+                close(idle.transport());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        IdleTransport idle;
+        while ((idle = idleTransports.pollFirst()) != null) {
+            close(idle.transport());
+        }
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(connectionsOpened.sum(), idleTransports.size(), permits.availablePermits());
+    }
+}
@@ -0,0 +1,27 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails;
+
+
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates.EmailTemplate;
+
+public class ExceedingLimitDigestEmail extends Email {
+    long limitAmount;
+    long totalAmount;
+    long breachCount;
+    static String CONTENT_HTML_FILE_NAME = "emails/ExceedingLimitDigestEmailContent.html";
+    static String EMAIL_HEADER = "Сводка о превышении лимита";
+    static EmailTemplate TEMPLATE = declareTemplate(CONTENT_HTML_FILE_NAME,
+            "limitAmount", "totalAmount", "breachCount");
+
+    public ExceedingLimitDigestEmail(long limitAmount, long totalAmount, long breachCount) {
+        this.limitAmount = limitAmount;
+        this.totalAmount = totalAmount;
+        this.breachCount = breachCount;
+        this.header = EMAIL_HEADER;
+        makeEmailContent();
+    }
+
+    @Override
+    public void makeEmailContent() {
+        content = TEMPLATE.render(limitAmount, totalAmount, breachCount);
+    }
+}
@@ -1,11 +1,14 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails;
 
 
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates.EmailTemplate;
+
 public class ExceedingLimitEmail extends Email {
     long limitAmount;
     long totalAmount;
-    static String CONTENT_HTML_FILE_NAME = "ExceedingLimitEmailContent.html";
+    static String CONTENT_HTML_FILE_NAME = "emails/ExceedingLimitEmailContent.html";
     static String EMAIL_HEADER = "ПРЕВЫШЕНИЕ ЛИМИТА!!!";
+    static EmailTemplate TEMPLATE = declareTemplate(CONTENT_HTML_FILE_NAME, "limitAmount", "totalAmount");
 
     public ExceedingLimitEmail(long limitAmount, long totalAmount) {
         this.limitAmount = limitAmount;
@@ -16,13 +19,6 @@ public class ExceedingLimitEmail extends Email {
 
     @Override
     public void makeEmailContent(){
-        content = convertHtmlContentToString(CONTENT_HTML_FILE_NAME);
-        content = insertAmounts(limitAmount, totalAmount);
-    }
-
-    private String insertAmounts(long limitAmount, long totalAmount) {
-        content = content.replace("{{limitAmount}}", String.valueOf(limitAmount));
-        content = content.replace("{{totalAmount}}", String.valueOf(totalAmount));
-        return content;
+        content = TEMPLATE.render(limitAmount, totalAmount);
     }
 }
@@ -0,0 +1,78 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class EmailTemplate {
+    static String PLACEHOLDER_START = "{{";
+    static String PLACEHOLDER_END = "}}";
+    static int MAX_CACHED_BUILDER_CAPACITY = 64 * 1024;
+    static ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+    String[] literals;
+    int[] slots;
+    List<String> parameters;
+    int estimatedLength;
+
+    private EmailTemplate(String[] literals, int[] slots, List<String> parameters, int estimatedLength) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameters = parameters;
+        this.estimatedLength = estimatedLength;
+    }
+
+    public static EmailTemplate compile(String source, String... parameters) {
+        List<String> declared = List.of(parameters);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Set<String> found = new LinkedHashSet<>();
+        int position = 0;
+        int start;
+        while ((start = source.indexOf(PLACEHOLDER_START, position)) >= 0) {
+            int end = source.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                throw new IllegalStateException("Unclosed placeholder at position " + start);
+            }
+            String name = source.substring(start + PLACEHOLDER_START.length(), end).trim();
+            int slot = declared.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalStateException("Placeholder {{" + name + "}} is not declared in " + declared);
+            }
+            literals.add(source.substring(position, start));
+            slots.add(slot);
+            found.add(name);
+            position = end + PLACEHOLDER_END.length();
+        }
+        literals.add(source.substring(position));
+        if (found.size() != declared.size()) {
+            throw new IllegalStateException("Declared parameters " + declared + " but the template uses " + found);
+        }
+        return new EmailTemplate(literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                declared,
+                source.length());
+    }
+
+    public String render(Object... values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException("Expected values for " + parameters + " but got " + values.length);
+        }
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        builder.ensureCapacity(estimatedLength);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]).append(values[slots[i]]);
+        }
+        builder.append(literals[slots.length]);
+        String rendered = builder.toString();
+        if (builder.capacity() > MAX_CACHED_BUILDER_CAPACITY) {
+            BUILDER.remove();
+        }
+        return rendered;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+}
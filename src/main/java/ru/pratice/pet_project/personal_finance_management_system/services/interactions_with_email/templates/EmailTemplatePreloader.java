@@ -0,0 +1,26 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates;
+
+import jakarta.annotation.PostConstruct;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.Email;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitDigestEmail;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitEmail;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class EmailTemplatePreloader {
+    static List<Class<? extends Email>> EMAILS = List.of(ExceedingLimitEmail.class, ExceedingLimitDigestEmail.class);
+
+    @SneakyThrows
+    @PostConstruct
+    public void preloadTemplates() {
+        for (Class<? extends Email> email : EMAILS) {
+            Class.forName(email.getName(), true, email.getClassLoader());
+        }
+        log.info("Preloaded {} email templates", EmailTemplates.size());
+    }
+}
@@ -0,0 +1,44 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public final class EmailTemplates {
+    static Map<String, EmailTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private EmailTemplates() {
+    }
+
+    public static EmailTemplate get(String fileName, String... parameters) {
+        EmailTemplate template = TEMPLATES.computeIfAbsent(fileName,
+                name -> EmailTemplate.compile(read(name), parameters));
+        if (!template.getParameters().equals(List.of(parameters))) {
+            throw new IllegalStateException("Template " + fileName + " is already declared with parameters "
+                    + template.getParameters());
+        }
+        return template;
+    }
+
+    public static int size() {
+        return TEMPLATES.size();
+    }
+
+    private static String read(String fileName) {
+        try (InputStream inputStream = EmailTemplates.class.getClassLoader().getResourceAsStream(fileName)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Email template " + fileName + " not found");
+            }
+            log.info("Loading email template {}", fileName);
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+
+import java.util.Optional;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "limits.accounting.mode", havingValue = "sync", matchIfMissing = true)
+public class DatabaseLimitAccounting implements LimitAccounting {
+    LimitRepository limitRepository;
+
+    @Override
+    public Optional<LimitTotals> addToTotalAmount(long userId, long delta) {
+        return limitRepository.addToTotalAmount(userId, delta);
+    }
+}
@@ -0,0 +1,189 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "limits.accounting.mode", havingValue = "in-memory")
+@DependsOn({"entityManagerFactory", "userIdSchemaMigration", "transactionTypeSchemaMigration"})
+public class InMemoryLimitAccounting implements LimitAccounting {
+    static String REBUILD_SQL = "select l.user_id, l.limit_amount, l.total_amount, " +
+            "coalesce(sum(t.amount), 0) as consumption " +
+            "from limits l left join transactions t on t.user_id = l.user_id and t.type = ? " +
+            "group by l.user_id, l.limit_amount, l.total_amount";
+    static String FLUSH_SQL = "update limits set total_amount = ? where user_id = ?";
+    ConcurrentHashMap<Long, Totals> totalsByUserId = new ConcurrentHashMap<>();
+    Set<Long> dirtyUserIds = ConcurrentHashMap.newKeySet();
+    LimitRepository limitRepository;
+    JdbcTemplate jdbcTemplate;
+    int flushBatchSize;
+
+    private static final class Totals {
+        LongAdder totalAmount = new LongAdder();
+        @NonFinal
+        volatile long limitAmount;
+
+        Totals(long totalAmount, long limitAmount) {
+            this.totalAmount.add(totalAmount);
+            this.limitAmount = limitAmount;
+        }
+    }
+
+    private record Snapshot(long totalAmount, long limitAmount) implements LimitTotals {
+        @Override
+        public long getTotalAmount() {
+            return totalAmount;
+        }
+
+        @Override
+        public long getLimitAmount() {
+            return limitAmount;
+        }
+    }
+
+    public InMemoryLimitAccounting(LimitRepository limitRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${limits.accounting.flush-batch-size:500}") int flushBatchSize) {
+        this.limitRepository = limitRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @PostConstruct
+    public void rebuildFromTransactions() {
+        jdbcTemplate.query(REBUILD_SQL, resultSet -> {
+            long userId = resultSet.getLong("user_id");
+            long consumption = resultSet.getLong("consumption");
+            totalsByUserId.putIfAbsent(userId, new Totals(consumption, resultSet.getLong("limit_amount")));
+            if (consumption != resultSet.getLong("total_amount")) {
+                dirtyUserIds.add(userId);
+            }
+        }, TypeOfTransaction.CONSUMPTION_TYPE.getCode());
+        log.info("Rebuilt limit totals of {} users from transactions, {} differed from the stored totals",
+                totalsByUserId.size(), dirtyUserIds.size());
+    }
+
+    @Override
+    public Optional<LimitTotals> addToTotalAmount(long userId, long delta) {
+        Totals totals = totalsByUserId.get(userId);
+        if (totals == null) {
+            Optional<LimitTracker> limit = limitRepository.findLimitByUserId(userId);
+            if (limit.isEmpty()) {
+                return Optional.empty();
+            }
+            totals = totalsByUserId.computeIfAbsent(userId,
+                    id -> new Totals(limit.get().getTotalAmount(), limit.get().getLimitAmount()));
+        }
+        add(userId, totals, delta);
+        Totals applied = totals;
+        afterRollback(() -> add(userId, applied, -delta));
+        return Optional.of(new Snapshot(totals.totalAmount.sum(), totals.limitAmount));
+    }
+
+    private void add(long userId, Totals totals, long delta) {
+        totals.totalAmount.add(delta);
+        dirtyUserIds.add(userId);
+    }
+
+    @Override
+    public void track(LimitTracker limit) {
+        totalsByUserId.compute(limit.getUserId(), (userId, totals) -> {
+            if (totals == null) {
+                return new Totals(limit.getTotalAmount(), limit.getLimitAmount());
+            }
+            totals.limitAmount = limit.getLimitAmount();
+            return totals;
+        });
+    }
+
+    @Override
+    public void forget(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    totalsByUserId.remove(userId);
+                }
+            });
+            return;
+        }
+        totalsByUserId.remove(userId);
+    }
+
+    @Override
+    public LimitTracker withCurrentTotal(LimitTracker limit) {
+        Totals totals = totalsByUserId.get(limit.getUserId());
+        if (totals != null) {
+            limit.setTotalAmount(totals.totalAmount.sum());
+        }
+        return limit;
+    }
+
+    private void afterRollback(Runnable compensation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensation.run();
+                    }
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${limits.accounting.flush-delay-ms:1000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>(flushBatchSize);
+        Iterator<Long> iterator = dirtyUserIds.iterator();
+        while (iterator.hasNext()) {
+            Long userId = iterator.next();
+            iterator.remove();
+            Totals totals = totalsByUserId.get(userId);
+            if (totals != null) {
+                batch.add(new Object[]{totals.totalAmount.sum(), userId});
+            }
+            if (batch.size() == flushBatchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(flushBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (DataAccessException e) {
+            batch.forEach(row -> dirtyUserIds.add((Long) row[1]));
+            log.error("Failed to flush limit totals of {} users, will retry", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+
+import java.util.Optional;
+
+public interface LimitAccounting {
+    Optional<LimitTotals> addToTotalAmount(long userId, long delta);
+
+    default void track(LimitTracker limit) {
+    }
+
+    default void forget(long userId) {
+    }
+
+    default LimitTracker withCurrentTotal(LimitTracker limit) {
+        return limit;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.EmailOutboxService;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.Email;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitDigestEmail;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitEmail;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class LimitBreachNotifier {
+    EmailOutboxService emailOutboxService;
+    UserLookupCache userLookupCache;
+    long cooldownMs;
+    boolean digestEnabled;
+    ConcurrentHashMap<Long, Long> lastNotifiedAt = new ConcurrentHashMap<>();
+    ConcurrentHashMap<Long, PendingDigest> pendingDigests = new ConcurrentHashMap<>();
+    Counter sent;
+    Counter suppressed;
+    Counter digestsSent;
+
+    public record Stats(long sent, long suppressed, long digestsSent, int pendingDigests) {
+    }
+
+    private record PendingDigest(long limitAmount, long totalAmount, long breachCount) {
+    }
+
+    public LimitBreachNotifier(EmailOutboxService emailOutboxService,
+                               UserLookupCache userLookupCache,
+                               @Value("${limits.notifications.cooldown-ms:3600000}") long cooldownMs,
+                               @Value("${limits.notifications.digest-enabled:false}") boolean digestEnabled,
+                               MeterRegistry meterRegistry) {
+        this.emailOutboxService = emailOutboxService;
+        this.userLookupCache = userLookupCache;
+        this.cooldownMs = cooldownMs;
+        this.digestEnabled = digestEnabled;
+        this.sent = Counter.builder("limits.notifications.sent")
+                .description("Limit emails enqueued by committed transactions")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("limits.notifications.suppressed")
+                .description("Limit crossings that sent no email because of the per-user cooldown")
+                .register(meterRegistry);
+        this.digestsSent = Counter.builder("limits.notifications.digests")
+                .description("Digest emails enqueued for crossings suppressed by the cooldown")
+                .register(meterRegistry);
+        Gauge.builder("limits.notifications.pending.digests", pendingDigests, ConcurrentHashMap::size)
+                .description("Users with suppressed crossings waiting for a digest")
+                .register(meterRegistry);
+    }
+
+    public void onLimitCrossed(long userId, long limitAmount, long totalAmount) {
+        long now = System.currentTimeMillis();
+        if (!tryStartCooldown(userId, now)) {
+            suppressed.increment();
+            if (digestEnabled) {
+                pendingDigests.merge(userId, new PendingDigest(limitAmount, totalAmount, 1),
+                        (pending, latest) -> new PendingDigest(latest.limitAmount(), latest.totalAmount(),
+                                pending.breachCount() + 1));
+            }
+            log.debug("Limit email for user {} suppressed by cooldown", userId);
+            return;
+        }
+        enqueue(userId, new ExceedingLimitEmail(limitAmount, totalAmount));
+        countSentOnCommit(userId, now);
+    }
+
+    private boolean tryStartCooldown(long userId, long now) {
+        boolean[] started = new boolean[1];
+        lastNotifiedAt.compute(userId, (id, notifiedAt) -> {
+            if (notifiedAt != null && now - notifiedAt < cooldownMs) {
+                return notifiedAt;
+            }
+            started[0] = true;
+            return now;
+        });
+        return started[0];
+    }
+
+    private void countSentOnCommit(long userId, long notifiedAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sent.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    sent.increment();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    lastNotifiedAt.remove(userId, notifiedAt);
+                }
+            }
+        });
+    }
+
+    private void enqueue(long userId, Email email) {
+        emailOutboxService.enqueue(email, userLookupCache.getById(userId).email());
+    }
+
+    @Scheduled(fixedDelayString = "${limits.notifications.digest-delay-ms:600000}")
+    public void sendDigests() {
+        long now = System.currentTimeMillis();
+        for (Long userId : pendingDigests.keySet()) {
+            Long notifiedAt = lastNotifiedAt.get(userId);
+            if (notifiedAt != null && now - notifiedAt < cooldownMs) {
+                continue;
+            }
+            PendingDigest digest = pendingDigests.remove(userId);
+            if (digest != null) {
+                lastNotifiedAt.put(userId, now);
+                enqueue(userId, new ExceedingLimitDigestEmail(digest.limitAmount(), digest.totalAmount(),
+                        digest.breachCount()));
+                digestsSent.increment();
+            }
+        }
+        lastNotifiedAt.entrySet().removeIf(entry -> now - entry.getValue() >= cooldownMs
+                && !pendingDigests.containsKey(entry.getKey()));
+    }
+
+    public Stats getStats() {
+        return new Stats((long) sent.count(), (long) suppressed.count(), (long) digestsSent.count(),
+                pendingDigests.size());
+    }
+}
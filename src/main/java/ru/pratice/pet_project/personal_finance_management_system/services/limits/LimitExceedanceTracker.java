@@ -1,35 +1,51 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.limits;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
-import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
-import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
-import ru.pratice.pet_project.personal_finance_management_system.entities.User;
-import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.EmailSender;
-import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitEmail;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
 
-@AllArgsConstructor
 @Component
 public class LimitExceedanceTracker {
-    LimitRepository limitRepository;
-    EmailSender emailSender;
+    LimitAccounting limitAccounting;
+    LimitBreachNotifier limitBreachNotifier;
+    Counter limitChecks;
+    Counter limitBreaches;
 
-    public  void incrementTotalAmount(User user, long differenceInSum) {
-        limitRepository.incrementTotalAmount(user.getUsername(), differenceInSum);
-        verificationOfLimitExcess(user);
+    public LimitExceedanceTracker(LimitAccounting limitAccounting,
+                                  LimitBreachNotifier limitBreachNotifier,
+                                  MeterRegistry meterRegistry) {
+        this.limitAccounting = limitAccounting;
+        this.limitBreachNotifier = limitBreachNotifier;
+        this.limitChecks = Counter.builder("limits.checks")
+                .description("Limit checks performed after a consumption was added")
+                .register(meterRegistry);
+        this.limitBreaches = Counter.builder("limits.breaches")
+                .description("Limit checks where the total crossed the limit")
+                .register(meterRegistry);
     }
 
-    public void decrementTotalAmount(User user, long differenceInSum) {
-        limitRepository.decrementTotalAmount(user.getUsername(), differenceInSum);
+    public void incrementTotalAmount(long userId, long differenceInSum) {
+        limitAccounting.addToTotalAmount(userId, differenceInSum)
+                .ifPresent(limitTotals -> verificationOfLimitExcess(userId, differenceInSum, limitTotals));
     }
 
-    @SuppressWarnings("OptionalGetWithoutIsPresent")
-    private void verificationOfLimitExcess(User user) {
-        LimitTracker limitTracker = limitRepository.findLimitByUsername(user.getUsername()).get();
-        long totalAmount = limitTracker.getTotalAmount();
-        long limitAmount = limitTracker.getLimitAmount();
-        if (totalAmount > limitAmount) {
-            emailSender.sendEmail(new ExceedingLimitEmail(limitAmount, totalAmount), user.getEmail());
+    public void decrementTotalAmount(long userId, long differenceInSum) {
+        limitAccounting.addToTotalAmount(userId, -differenceInSum);
+    }
+
+    private void verificationOfLimitExcess(long userId, long differenceInSum, LimitTotals limitTotals) {
+        long totalAmount = limitTotals.getTotalAmount();
+        long limitAmount = limitTotals.getLimitAmount();
+        long previousTotalAmount = totalAmount - differenceInSum;
+        limitChecks.increment();
+        if (previousTotalAmount <= limitAmount && totalAmount > limitAmount) {
+            limitBreaches.increment();
+            limitBreachNotifier.onLimitCrossed(userId, limitAmount, totalAmount);
         }
     }
-}
\ No newline at end of file
+
+    public LimitBreachNotifier.Stats getNotificationStats() {
+        return limitBreachNotifier.getStats();
+    }
+}
@@ -1,52 +1,61 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.limits;
 
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
-import ru.pratice.pet_project.personal_finance_management_system.entities.User;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidEntityException;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 public class LimitService {
     LimitRepository limitRepository;
+    LimitAccounting limitAccounting;
     LimitExceedanceTracker limitExceedanceTracker;
+    UserLookupCache userLookupCache;
+    ReadYourWritesTracker readYourWritesTracker;
 
+    @Transactional(readOnly = true)
     public LimitTracker getLimitById(long id) {
-        return limitRepository.findById(id).orElseThrow(
+        return limitRepository.findVisibleLimitById(id).map(limitAccounting::withCurrentTotal).orElseThrow(
                 () -> new ResourceNotFoundException("Limit with id: " + id + " not found"));
     }
 
+    @Transactional(readOnly = true)
     public LimitTracker getLimitByUsername(String username) {
-        return limitRepository.findLimitByUsername(username).orElseThrow(
-                () -> new ResourceNotFoundException("Limit with username: " + username + " not found")
-        );
-    }
-
-    private void isLimitExistsById(long id) {
-        if (!limitRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Limit with id: " + id + " not found");
-        }
+        long userId = userLookupCache.getByUsername(username).id();
+        readYourWritesTracker.routeReadsOf(userId);
+        return limitRepository.findLimitByUserId(userId)
+                .map(limitAccounting::withCurrentTotal)
+                .orElseThrow(() -> new ResourceNotFoundException("Limit with username: " + username + " not found"));
     }
 
     public void saveLimit(LimitTracker limit) {
-        limit.setUsername(limit.getUsername().trim());
         limit.setTotalAmount(0L);
         checkAmountByCorrectness(limit.getLimitAmount());
         limitRepository.save(limit);
+        limitAccounting.track(limit);
         log.info("Limit with id: {} saved.", limit.getId());
     }
 
     @Transactional
     public void updateLimitAmount(long id, long limitAmount) {
-        isLimitExistsById(id);
         checkAmountByCorrectness(limitAmount);
+        LimitTracker limit = limitRepository.findVisibleLimitById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Limit with id: " + id + " not found"));
         limitRepository.updateLimitAmount(id, limitAmount);
+        limitAccounting.track(LimitTracker.builder()
+                .userId(limit.getUserId())
+                .limitAmount(limitAmount)
+                .totalAmount(limit.getTotalAmount())
+                .build());
+        readYourWritesTracker.recordWrite(limit.getUserId());
         log.info("Limit amount with id: {} updated.", id);
     }
 
@@ -56,15 +65,25 @@ public class LimitService {
         }
     }
 
-    public void updateTotalAmount(User user, long previousAmount, long amount) {
-        long difference = previousAmount - amount;
-        if (difference >= 0) {
-            limitExceedanceTracker.incrementTotalAmount(user, difference);
-        } else
-            limitExceedanceTracker.decrementTotalAmount(user, Math.abs(difference));
+    @Transactional
+    public void deleteLimitByUserId(long userId) {
+        limitRepository.deleteLimitsByUserId(userId);
+        limitAccounting.forget(userId);
+    }
+
+    public void updateTotalAmount(long userId, long previousAmount, long amount) {
+        long difference = amount - previousAmount;
+        if (difference > 0) {
+            limitExceedanceTracker.incrementTotalAmount(userId, difference);
+        } else if (difference < 0)
+            limitExceedanceTracker.decrementTotalAmount(userId, Math.abs(difference));
+    }
+
+    public LimitBreachNotifier.Stats getNotificationStats() {
+        return limitExceedanceTracker.getNotificationStats();
     }
 
-    public void updateTotalAmountAfterSave(User user, long amount) {
-        limitExceedanceTracker.incrementTotalAmount(user, amount);
+    public void updateTotalAmountAfterSave(long userId, long amount) {
+        limitExceedanceTracker.incrementTotalAmount(userId, amount);
     }
 }
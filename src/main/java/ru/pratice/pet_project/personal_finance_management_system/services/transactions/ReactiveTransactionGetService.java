@@ -0,0 +1,61 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.ReactiveTransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+
+import java.time.LocalDate;
+import java.util.function.LongFunction;
+
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "transactions.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionGetService {
+    ReactiveTransactionRepository reactiveTransactionRepository;
+
+    public Flux<Transaction> getTransactionsByUsername(String username) {
+        return forUser(username, reactiveTransactionRepository::findTransactionsByUserId);
+    }
+
+    public Flux<Transaction> getTransactionsByType(TypeOfTransaction type, String username) {
+        return forUser(username, userId -> reactiveTransactionRepository.findTransactionsByType(userId, type));
+    }
+
+    public Flux<Transaction> getTransactionsByCategory(long categoryId, String username, TypeOfTransaction type) {
+        return forUser(username,
+                userId -> reactiveTransactionRepository.findTransactionsByCategoryId(userId, type, categoryId));
+    }
+
+    public Flux<Transaction> getTransactionsByDateRange(TypeOfTransaction type, String username,
+                                                        LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Flux.error(new InvalidRequestException("The start date should not be after the end date"));
+        }
+        return forUser(username,
+                userId -> reactiveTransactionRepository.findTransactionsByDateRange(userId, type, from, to));
+    }
+
+    public Flux<Transaction> getFilteredByAmountTransactions(TypeOfTransaction type, String username,
+                                                             long minAmount, long maxAmount) {
+        if (minAmount >= maxAmount) {
+            return Flux.error(new InvalidRequestException("The minimum amount should be " +
+                    "less than the maximum amount"));
+        }
+        return forUser(username, userId ->
+                reactiveTransactionRepository.filteredByAmountTransactions(userId, type, minAmount, maxAmount));
+    }
+
+    private Flux<Transaction> forUser(String username, LongFunction<Flux<Transaction>> query) {
+        return reactiveTransactionRepository.findUserIdByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User with name: " + username +
+                        " not found")))
+                .flatMapMany(userId -> query.apply(userId)
+                        .doOnNext(transaction -> transaction.setUsername(username)));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+public record TransactionCursor(LocalDate date, long id) {
+    private static final String SEPARATOR = ":";
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    public String encode() {
+        String raw = date.toEpochDay() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            return new TransactionCursor(LocalDate.ofEpochDay(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("The cursor is specified incorrectly");
+        }
+    }
+}
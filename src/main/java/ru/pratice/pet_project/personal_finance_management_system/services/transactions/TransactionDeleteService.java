@@ -1,50 +1,93 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
 
-import lombok.AllArgsConstructor;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.RemovedTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.TransactionSnapshot;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
 import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
 import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
 
+import java.util.List;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
-@AllArgsConstructor
 public class TransactionDeleteService {
     LimitService limitService;
-    TransactionGetService transactionGetService;
     TransactionSaveAndUpdateService transactionSaveAndUpdateService;
     TransactionRepository transactionRepository;
     UserService userService;
+    MonthlyAggregateService monthlyAggregateService;
+    TransactionTemplate transactionTemplate;
+    int deleteBatchSize;
 
+    public TransactionDeleteService(LimitService limitService,
+                                    TransactionSaveAndUpdateService transactionSaveAndUpdateService,
+                                    TransactionRepository transactionRepository,
+                                    UserService userService,
+                                    MonthlyAggregateService monthlyAggregateService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${transactions.delete.batch-size:5000}") int deleteBatchSize) {
+        this.limitService = limitService;
+        this.transactionSaveAndUpdateService = transactionSaveAndUpdateService;
+        this.transactionRepository = transactionRepository;
+        this.userService = userService;
+        this.monthlyAggregateService = monthlyAggregateService;
+        this.transactionTemplate = transactionTemplate;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    @Transactional
     public void deleteTransactionById(long id) {
-        if (transactionRepository.existsById(id)) {
-            log.info("Deleting transaction with id: {}", id);
-            transactionRepository.deleteById(id);
-            long amount = transactionGetService.getTransactionById(id).getAmount();
-            transactionSaveAndUpdateService.updateAmountOfExpenses(id, amount, false);
-        } else
-            throw new ResourceNotFoundException("Transaction with id: " + id + " not found");
+        TransactionSnapshot previous = transactionRepository.deleteReturningPrevious(id).orElseThrow(
+                () -> new ResourceNotFoundException("Transaction with id: " + id + " not found"));
+        log.info("Deleting transaction with id: {}", id);
+        monthlyAggregateService.remove(previous);
+        transactionSaveAndUpdateService.updateAmountOfExpenses(previous, 0L);
     }
 
     public void deleteTransactionsByUsername(String username) {
-        long amount = transactionRepository.sumOfTransactionsAmountWithTypeConsumption(username,
-                TypeOfTransaction.CONSUMPTION_TYPE.name());
-        transactionRepository.deleteTransactionByUsername(username);
-        updateTotalAmountAfterDeleteByUsername(username, amount);
+        long userId = userService.getUserReferenceByName(username).id();
+        long removed = deleteInChunks(userId,
+                () -> transactionRepository.deleteChunkByUserId(userId, deleteBatchSize));
+        log.info("Deleted {} transactions by username: {}", removed, username);
+    }
+
+    public void deleteTransactionsByType(TypeOfTransaction type, String username) {
+        long userId = userService.getUserReferenceByName(username).id();
+        long removed = deleteInChunks(userId,
+                () -> transactionRepository.deleteChunkByType(userId, type, deleteBatchSize));
+        log.info("Deleted {} transactions by type: {} and username: {}", removed, type, username);
     }
 
-    public void deleteTransactionsByType(String type, String username) {
-        long amount = transactionRepository.sumOfTransactionsAmountWithTypeConsumption(username,
-                TypeOfTransaction.CONSUMPTION_TYPE.name());
-        transactionRepository.deleteTransactionByType(type, username);
-        updateTotalAmountAfterDeleteByUsername(username, amount);
+    private long deleteInChunks(long userId, Supplier<List<RemovedTotals>> deleteChunk) {
+        long removed = 0;
+        long removedInChunk;
+        do {
+            removedInChunk = transactionTemplate.execute(status -> reconcile(userId, deleteChunk.get()));
+            removed += removedInChunk;
+        } while (removedInChunk == deleteBatchSize);
+        return removed;
     }
 
-    private void updateTotalAmountAfterDeleteByUsername(String username, long amount) {
-        log.info("Deleting transactions by username: {}", username);
-        limitService.updateTotalAmount(userService.getUserByName(username), 0L, amount);
+    private long reconcile(long userId, List<RemovedTotals> removedTotals) {
+        long removedCount = 0;
+        long removedConsumption = 0;
+        for (RemovedTotals totals : removedTotals) {
+            monthlyAggregateService.applyDelta(userId, totals.getPeriod(), totals.getCategoryId(), totals.getType(),
+                    -totals.getAmount(), -totals.getRemovedCount());
+            removedCount += totals.getRemovedCount();
+            if (totals.getType() == TypeOfTransaction.CONSUMPTION_TYPE) {
+                removedConsumption += totals.getAmount();
+            }
+        }
+        limitService.updateTotalAmount(userId, removedConsumption, 0L);
+        return removedCount;
     }
 }
@@ -0,0 +1,117 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TransactionExportService {
+    static String CSV_HEADER = "id,date,type,amount,category_id,category_name,description";
+    static int FLUSH_EVERY_ROWS = 500;
+    TransactionRepository transactionRepository;
+    EntityManager entityManager;
+    ObjectMapper objectMapper;
+    UserLookupCache userLookupCache;
+    ReadYourWritesTracker readYourWritesTracker;
+
+    public static void checkFormatForCorrectness(String format) {
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            throw new InvalidRequestException("The format should be 'ndjson' or 'csv'");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTransactionsByUsername(String username, String format, OutputStream outputStream) {
+        checkFormatForCorrectness(format);
+        long userId = userLookupCache.getByUsername(username).id();
+        readYourWritesTracker.routeReadsOf(userId);
+        try (Stream<Transaction> transactions = transactionRepository.streamTransactionsByUserId(userId)
+                .peek(transaction -> transaction.setUsername(username))) {
+            long rows = format.equals("csv")
+                    ? writeCsv(transactions, outputStream)
+                    : writeNdjson(transactions, outputStream);
+            log.info("Exported {} transactions of user {} as {}", rows, username, format);
+        }
+    }
+
+    @SneakyThrows
+    private long writeNdjson(Stream<Transaction> transactions, OutputStream outputStream) {
+        long rows = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            for (Transaction transaction : (Iterable<Transaction>) transactions::iterator) {
+                writer.write(transaction);
+                entityManager.detach(transaction);
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return rows;
+    }
+
+    @SneakyThrows
+    private long writeCsv(Stream<Transaction> transactions, OutputStream outputStream) {
+        long rows = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (Transaction transaction : (Iterable<Transaction>) transactions::iterator) {
+                writeCsvRow(writer, transaction);
+                entityManager.detach(transaction);
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return rows;
+    }
+
+    @SneakyThrows
+    private void writeCsvRow(Writer writer, Transaction transaction) {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(transaction.getDate().toString());
+        writer.write(',');
+        writer.write(transaction.getType().name());
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getAmount()));
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getCategory().getId()));
+        writer.write(',');
+        writer.write(escapeCsv(transaction.getCategory().getName()));
+        writer.write(',');
+        writer.write(escapeCsv(transaction.getDescription()));
+        writer.write('\n');
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
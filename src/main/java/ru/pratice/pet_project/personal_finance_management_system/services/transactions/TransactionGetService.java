@@ -1,121 +1,258 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import org.springframework.transaction.annotation.Transactional;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
 import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryService;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
+
+import static ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionSpecifications.*;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@Transactional(readOnly = true)
 public class TransactionGetService {
+    static int MAX_PAGE_SIZE = 500;
+    static Set<String> SORT_KEYS = Set.of("date", "amount", "id");
     TransactionRepository transactionRepository;
     CategoryService categoryService;
+    UserLookupCache userLookupCache;
+    ReadYourWritesTracker readYourWritesTracker;
+    DistributionSummary resultSizes;
+
+    public TransactionGetService(TransactionRepository transactionRepository,
+                                 CategoryService categoryService,
+                                 UserLookupCache userLookupCache,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.categoryService = categoryService;
+        this.userLookupCache = userLookupCache;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.resultSizes = DistributionSummary.builder("transactions.get.result.size")
+                .description("Number of transactions returned by a read")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     public Transaction getTransactionById(long id) {
-        return transactionRepository.findById(id).orElseThrow(
+        Transaction transaction = transactionRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Transaction with id: " + id + " not found"));
+        transaction.setUsername(userLookupCache.getById(transaction.getUserId()).username());
+        return transaction;
+    }
+
+    public long getUserId(String username) {
+        long userId = userLookupCache.getByUsername(username).id();
+        readYourWritesTracker.routeReadsOf(userId);
+        return userId;
+    }
+
+    private List<Transaction> withUsername(List<Transaction> transactions, String username) {
+        resultSizes.record(transactions.size());
+        transactions.forEach(transaction -> transaction.setUsername(username));
+        return transactions;
     }
 
     public List<Transaction> getTransactionsByUsername(String username) {
-        return transactionRepository.findTransactionsByUsername(username);
+        return withUsername(transactionRepository.findTransactionsByUserId(getUserId(username)), username);
+    }
+
+    public TransactionPage getPageOfTransactionsByUsername(String username, String cursor, int size) {
+        checkPageSizeForCorrectness(size);
+        long userId = getUserId(username);
+        if (cursor == null || cursor.isBlank()) {
+            return TransactionPage.of(withUsername(
+                    transactionRepository.findFirstPageByUserId(userId, size), username), size);
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        return TransactionPage.of(withUsername(
+                transactionRepository.findNextPageByUserId(userId, after.date(), after.id(), size), username), size);
+    }
+
+    public TransactionPage getPageOfTransactionsByType(TypeOfTransaction type, String username,
+                                                       String cursor, int size) {
+        checkPageSizeForCorrectness(size);
+        long userId = getUserId(username);
+        if (cursor == null || cursor.isBlank()) {
+            return TransactionPage.of(withUsername(
+                    transactionRepository.findFirstPageByType(userId, type, size), username), size);
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        return TransactionPage.of(withUsername(
+                transactionRepository.findNextPageByType(userId, type, after.date(), after.id(), size), username),
+                size);
     }
 
-    public List<Transaction> getTransactionsByCategory(long categoryId, String username, String type) {
-        checkTypeForCorrectness(type);
-        Category category = categoryService.getCategoryById(categoryId);
-        return transactionRepository.findTransactionByCategoryId(category, username, type);
+    private void checkPageSizeForCorrectness(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("The page size should be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
-    public List<Transaction> getTransactionsByDate(String username, String type, LocalDate date) {
-        checkTypeForCorrectness(type);
-        return transactionRepository.findTransactionByDate(username, type, date);
+    public List<Transaction> searchTransactions(TransactionSearchCriteria criteria) {
+        checkSearchCriteriaForCorrectness(criteria);
+        Specification<Transaction> specification = withCategoryFetched()
+                .and(hasUserId(getUserId(criteria.username())));
+        if (criteria.type() != null) {
+            specification = specification.and(hasType(criteria.type()));
+        }
+        if (criteria.categoryIds() != null && !criteria.categoryIds().isEmpty()) {
+            specification = specification.and(hasCategoryIn(criteria.categoryIds()));
+        }
+        if (criteria.minAmount() != null) {
+            specification = specification.and(hasAmountFrom(criteria.minAmount()));
+        }
+        if (criteria.maxAmount() != null) {
+            specification = specification.and(hasAmountTo(criteria.maxAmount()));
+        }
+        if (criteria.from() != null) {
+            specification = specification.and(hasDateFrom(criteria.from()));
+        }
+        if (criteria.to() != null) {
+            specification = specification.and(hasDateTo(criteria.to()));
+        }
+        if (criteria.description() != null && !criteria.description().isBlank()) {
+            specification = specification.and(hasDescriptionContaining(criteria.description().trim()));
+        }
+        Sort.Direction direction = Sort.Direction.fromString(criteria.direction());
+        Sort sort = Sort.by(direction, criteria.sortBy()).and(Sort.by(direction, "id"));
+        return withUsername(transactionRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(criteria.size()).all()), criteria.username());
     }
 
-    public List<Transaction> getFilteredByAmountTransactions(String type, String username,
+    private void checkSearchCriteriaForCorrectness(TransactionSearchCriteria criteria) {
+        if (criteria.minAmount() != null && criteria.maxAmount() != null
+                && criteria.minAmount() > criteria.maxAmount()) {
+            throw new InvalidRequestException("The minimum amount should not be greater than the maximum amount");
+        }
+        if (criteria.from() != null && criteria.to() != null) {
+            checkDateRangeForCorrectness(criteria.from(), criteria.to());
+        }
+        if (!SORT_KEYS.contains(criteria.sortBy())) {
+            throw new InvalidRequestException("The sort key should be one of " + SORT_KEYS);
+        }
+        if (!criteria.direction().equalsIgnoreCase("asc") && !criteria.direction().equalsIgnoreCase("desc")) {
+            throw new InvalidRequestException("The sort direction should be 'asc' or 'desc'");
+        }
+        checkPageSizeForCorrectness(criteria.size());
+    }
+
+    public List<Transaction> getTransactionsByCategory(long categoryId, String username, TypeOfTransaction type) {
+        categoryService.getCategoryById(categoryId);
+        return withUsername(transactionRepository.findTransactionByCategoryId(categoryId, getUserId(username), type),
+                username);
+    }
+
+    public List<Transaction> getTransactionsByDate(String username, TypeOfTransaction type, LocalDate date) {
+        return getTransactionsByDateRange(type, username, date, date, null);
+    }
+
+    public List<Transaction> getTransactionsByDateRange(TypeOfTransaction type,
+                                                        String username,
+                                                        LocalDate from,
+                                                        LocalDate to,
+                                                        Long categoryId) {
+        checkDateRangeForCorrectness(from, to);
+        if (categoryId != null) {
+            categoryService.getCategoryById(categoryId);
+        }
+        long userId = getUserId(username);
+        if (categoryId == null) {
+            return withUsername(transactionRepository.findTransactionsByDateRange(userId, type, from, to), username);
+        }
+        return withUsername(transactionRepository.findTransactionsByCategoryIdAndDateRange(userId, type,
+                categoryId, from, to), username);
+    }
+
+    private void checkDateRangeForCorrectness(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("The start date should not be after the end date");
+        }
+    }
+
+    public List<Transaction> getFilteredByAmountTransactions(TypeOfTransaction type, String username,
                                                              long minAmount, long maxAmount) {
-        checkTypeForCorrectness(type);
         if (minAmount >= maxAmount) {
             throw new InvalidRequestException("The minimum amount should be " +
                     "less than the maximum amount");
         }
-        return transactionRepository.filteredByAmountTransactions(username, type, minAmount, maxAmount);
+        return withUsername(transactionRepository.filteredByAmountTransactions(getUserId(username), type,
+                minAmount, maxAmount), username);
     }
 
-    public List<Transaction> getFilteredByMonthsTransactions(String type,
+    public List<Transaction> getFilteredByMonthsTransactions(TypeOfTransaction type,
                                                              String name,
                                                              short minMonth,
                                                              short maxMonth,
                                                              int year) {
-        checkTypeForCorrectness(type);
-        short finalMinMonth = minMonth < 1 ? 1 : minMonth;
-        short finalMaxMonth = maxMonth == 0 || maxMonth > 12 ? 12 : maxMonth;
-        checkMonthAndYearsForCorrectness(minMonth, maxMonth, year);
-        return transactionRepository.findTransactionsByType(name, type).stream().filter(transaction ->
-                transaction.getDate().getYear() == year &&
-                        transaction.getDate().getMonth().getValue() >= finalMinMonth &&
-                        transaction.getDate().getMonth().getValue() <= finalMaxMonth).toList();
+        return getFilteredByMonthsTransactions(type, name, minMonth, maxMonth, year, null);
     }
 
-    public List<Transaction> getFilteredByMonthsTransactions(String type,
+    public List<Transaction> getFilteredByMonthsTransactions(TypeOfTransaction type,
                                                              String username,
                                                              short minMonth,
                                                              short maxMonth,
                                                              int year,
-                                                             long categoryId) {
-        checkTypeForCorrectness(type);
-        short finalMinMonth = minMonth < 1 ? 1 : minMonth;
-        short finalMaxMonth = maxMonth == 0 || maxMonth > 12 ? 12 : maxMonth;
+                                                             Long categoryId) {
         checkMonthAndYearsForCorrectness(minMonth, maxMonth, year);
-        Category category = categoryService.getCategoryById(categoryId);
-        return transactionRepository.findTransactionByCategoryId(category, username, type).stream()
-                .filter(transaction ->
-                        transaction.getDate().getYear() == year &&
-                                transaction.getDate().getMonth().getValue() >= finalMinMonth &&
-                                transaction.getDate().getMonth().getValue() <= finalMaxMonth).toList();
+        short finalMinMonth = minMonth == 0 ? 1 : minMonth;
+        short finalMaxMonth = maxMonth == 0 ? 12 : maxMonth;
+        LocalDate from = YearMonth.of(year, finalMinMonth).atDay(1);
+        LocalDate to = YearMonth.of(year, finalMaxMonth).atEndOfMonth();
+        return getTransactionsByDateRange(type, username, from, to, categoryId);
     }
 
     private void checkMonthAndYearsForCorrectness(short minMonth, short maxMonth, int year) {
         if (year < 1950 || year > LocalDate.now().getYear()) {
             throw new InvalidRequestException("The year must be between 1950 and current year");
         }
+        if (minMonth < 0 || minMonth > 12 || maxMonth < 0 || maxMonth > 12) {
+            throw new InvalidRequestException("The months must be between 1 and 12");
+        }
         if (minMonth >= maxMonth) {
             throw new InvalidRequestException("The minimum month should be " +
                     "less than the maximum month");
         }
     }
 
-    public List<Transaction> getTransactionsByType(String type, String username) {
-        checkTypeForCorrectness(type);
-        return transactionRepository.findTransactionsByType(username, type);
+    public List<Transaction> getTransactionsByType(TypeOfTransaction type, String username) {
+        return withUsername(transactionRepository.findTransactionsByType(getUserId(username), type), username);
     }
 
-    public List<Transaction> getTransactionsByCategoryAndDate(String username, String type,
+    public List<Transaction> getTransactionsByCategoryAndDate(String username, TypeOfTransaction type,
                                                               LocalDate date, long categoryId) {
-        checkTypeForCorrectness(type);
-        Category category = categoryService.getCategoryById(categoryId);
-        return transactionRepository.findTransactionByCategoryIdAndDate(username, type, date, category);
+        return getTransactionsByDateRange(type, username, date, date, categoryId);
     }
 
-    public List<Transaction> getSortedByAmountTransactions(String username, String type, boolean isIncreasedSort) {
+    public List<Transaction> getSortedByAmountTransactions(String username, TypeOfTransaction type,
+                                                           boolean isIncreasedSort) {
+        long userId = getUserId(username);
         if (isIncreasedSort) {
-            return transactionRepository.findAndSortedByAscTransactionsByType(username, type);
+            return withUsername(transactionRepository.findAndSortedByAscTransactionsByType(userId, type), username);
         }
-        return transactionRepository.findAndSortedByDescTransactionsByType(username, type);
+        return withUsername(transactionRepository.findAndSortedByDescTransactionsByType(userId, type), username);
     }
 
-    public List<Transaction> getLimitedNumberOfTransactions(String username, String type,
+    public List<Transaction> getLimitedNumberOfTransactions(String username, TypeOfTransaction type,
                                                             int lowLimit, int highLimit) {
         checkLimitsForCorrectness(lowLimit, highLimit);
-        return getTransactionsByType(type, username).stream().skip(lowLimit).limit(highLimit).toList();
+        return withUsername(transactionRepository.findTransactionsByTypeWithOffset(getUserId(username), type,
+                lowLimit, highLimit), username);
     }
 
     private void checkLimitsForCorrectness(int lowLimit, int highLimit) {
@@ -123,12 +260,4 @@ public class TransactionGetService {
             throw new InvalidRequestException("The limits are specified incorrectly");
         }
     }
-
-    public void checkTypeForCorrectness(String type) {
-        if (!type.trim().equals(TypeOfTransaction.INCOME_TYPE.name())
-                && !type.trim().equals(TypeOfTransaction.CONSUMPTION_TYPE.name())) {
-            throw new InvalidRequestException("The type should be '" + TypeOfTransaction.INCOME_TYPE.name()
-                    + "' or '" + TypeOfTransaction.CONSUMPTION_TYPE.name() + "'");
-        }
-    }
 }
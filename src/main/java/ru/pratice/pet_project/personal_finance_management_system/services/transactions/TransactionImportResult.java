@@ -0,0 +1,4 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+public record TransactionImportResult(int imported, long consumptionAmount) {
+}
@@ -0,0 +1,193 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryService;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidEntityException;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserReference;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TransactionImportService {
+    static int MAX_ROWS = 100_000;
+    static int BATCH_SIZE = 500;
+    static List<String> REQUIRED_CSV_COLUMNS = List.of("date", "type", "amount", "category_id");
+    UserService userService;
+    CategoryService categoryService;
+    LimitService limitService;
+    MonthlyAggregateService monthlyAggregateService;
+    EntityManager entityManager;
+
+    private record AggregateKey(LocalDate period, long categoryId, TypeOfTransaction type) {
+    }
+
+    @Transactional
+    public TransactionImportResult importCsv(String username, String csv) {
+        return importTransactions(username, parseCsv(csv));
+    }
+
+    @Transactional
+    public TransactionImportResult importTransactions(String username, List<Transaction> transactions) {
+        if (transactions.isEmpty() || transactions.size() > MAX_ROWS) {
+            throw new InvalidRequestException("The import should contain between 1 and " + MAX_ROWS + " rows");
+        }
+        UserReference user = userService.getUserReferenceByName(username);
+        Map<Long, Category> categories = categoryService.getCategoriesByIds(collectCategoryIds(transactions));
+        for (int row = 0; row < transactions.size(); row++) {
+            prepareRow(transactions.get(row), row + 1, user, categories);
+        }
+        long consumptionAmount = persistInBatches(transactions);
+        applyAggregates(user.id(), transactions);
+        if (consumptionAmount > 0) {
+            limitService.updateTotalAmountAfterSave(user.id(), consumptionAmount);
+        }
+        log.info("Imported {} transactions for user {}", transactions.size(), user.username());
+        return new TransactionImportResult(transactions.size(), consumptionAmount);
+    }
+
+    private Set<Long> collectCategoryIds(List<Transaction> transactions) {
+        Set<Long> ids = new HashSet<>();
+        for (int row = 0; row < transactions.size(); row++) {
+            Category category = transactions.get(row).getCategory();
+            if (category == null || category.getId() == null) {
+                throw new InvalidEntityException("Row " + (row + 1) + ": category is required");
+            }
+            ids.add(category.getId());
+        }
+        return ids;
+    }
+
+    private void prepareRow(Transaction transaction, int row, UserReference user, Map<Long, Category> categories) {
+        if (transaction.getType() == null || transaction.getDate() == null) {
+            throw new InvalidEntityException("Row " + row + ": type and date are required");
+        }
+        transaction.setId(null);
+        transaction.setUserId(user.id());
+        transaction.setUsername(user.username());
+        transaction.setCategory(categories.get(transaction.getCategory().getId()));
+        if (transaction.getDescription() != null) {
+            transaction.setDescription(transaction.getDescription().trim());
+        }
+        if (transaction.getAmount() <= 0) {
+            throw new InvalidEntityException("Row " + row + ": amount must be greater than zero");
+        }
+    }
+
+    private long persistInBatches(List<Transaction> transactions) {
+        long consumptionAmount = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            entityManager.persist(transaction);
+            if (transaction.getType() == TypeOfTransaction.CONSUMPTION_TYPE) {
+                consumptionAmount += transaction.getAmount();
+            }
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return consumptionAmount;
+    }
+
+    private void applyAggregates(long userId, List<Transaction> transactions) {
+        Map<AggregateKey, long[]> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            AggregateKey key = new AggregateKey(transaction.getDate().withDayOfMonth(1),
+                    transaction.getCategory().getId(), transaction.getType());
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += transaction.getAmount();
+            delta[1]++;
+        }
+        deltas.forEach((key, delta) -> monthlyAggregateService.applyDelta(userId, key.period(),
+                key.categoryId(), key.type(), delta[0], delta[1]));
+    }
+
+    private List<Transaction> parseCsv(String csv) {
+        List<String> lines = csv.lines().filter(line -> !line.isBlank()).toList();
+        if (lines.isEmpty()) {
+            throw new InvalidRequestException("The import should contain a header and at least one row");
+        }
+        List<String> header = parseCsvLine(lines.getFirst()).stream()
+                .map(column -> column.trim().toLowerCase())
+                .toList();
+        if (!header.containsAll(REQUIRED_CSV_COLUMNS)) {
+            throw new InvalidRequestException("The CSV header should contain columns " + REQUIRED_CSV_COLUMNS);
+        }
+        Map<String, Integer> columns = header.stream()
+                .collect(Collectors.toMap(column -> column, header::indexOf, (first, second) -> first));
+        List<Transaction> transactions = new ArrayList<>(lines.size() - 1);
+        for (int row = 1; row < lines.size(); row++) {
+            transactions.add(parseCsvRow(parseCsvLine(lines.get(row)), columns, row));
+        }
+        return transactions;
+    }
+
+    private Transaction parseCsvRow(List<String> values, Map<String, Integer> columns, int row) {
+        try {
+            Transaction transaction = new Transaction();
+            transaction.setDate(LocalDate.parse(value(values, columns, "date")));
+            transaction.setType(TypeOfTransaction.parse(value(values, columns, "type")));
+            transaction.setAmount(Long.parseLong(value(values, columns, "amount")));
+            Category category = new Category();
+            category.setId(Long.parseLong(value(values, columns, "category_id")));
+            transaction.setCategory(category);
+            if (columns.containsKey("description")) {
+                String description = value(values, columns, "description");
+                transaction.setDescription(description.isEmpty() ? null : description);
+            }
+            return transaction;
+        } catch (NumberFormatException | DateTimeParseException | IndexOutOfBoundsException
+                 | InvalidRequestException e) {
+            throw new InvalidEntityException("Row " + row + ": " + e.getMessage());
+        }
+    }
+
+    private String value(List<String> values, Map<String, Integer> columns, String column) {
+        return values.get(columns.get(column)).trim();
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
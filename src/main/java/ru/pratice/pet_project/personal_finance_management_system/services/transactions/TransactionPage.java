@@ -0,0 +1,15 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+
+import java.util.List;
+
+public record TransactionPage(List<Transaction> transactions, String nextCursor) {
+
+    public static TransactionPage of(List<Transaction> transactions, int size) {
+        if (transactions.size() < size) {
+            return new TransactionPage(transactions, null);
+        }
+        return new TransactionPage(transactions, TransactionCursor.after(transactions.getLast()).encode());
+    }
+}
@@ -0,0 +1,190 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@DependsOn({"entityManagerFactory", "userIdSchemaMigration", "transactionTypeSchemaMigration"})
+public class TransactionPartitionManager {
+    static Pattern PARTITION_NAME = Pattern.compile("transactions_y(\\d{4})(?:m(0[1-9]|1[0-2]))?");
+    static String DEFAULT_PARTITION = "transactions_default";
+    static String IS_PARTITIONED_SQL = "select count(*) from pg_partitioned_table " +
+            "where partrelid = cast(to_regclass('transactions') as oid)";
+    static String PARTITION_STATE_SQL = "select relispartition from pg_class " +
+            "where oid = cast(to_regclass(cast(? as text)) as oid)";
+    static String PARTITIONS_SQL = "select relname as name, relispartition as attached from pg_class " +
+            "where relnamespace = to_regnamespace(current_schema()) and relkind = 'r' " +
+            "and relname ~ '^transactions_y[0-9]{4}(m[0-9]{2})?$' order by relname";
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    boolean enabled;
+    boolean yearly;
+    int premake;
+
+    public record Partition(String name, boolean attached) {
+    }
+
+    private record Period(String name, LocalDate from, LocalDate to) {
+        static Period containing(LocalDate date, boolean yearly) {
+            if (yearly) {
+                LocalDate from = date.withDayOfYear(1);
+                return new Period("transactions_y" + from.getYear(), from, from.plusYears(1));
+            }
+            LocalDate from = date.withDayOfMonth(1);
+            return new Period(String.format("transactions_y%dm%02d", from.getYear(), from.getMonthValue()),
+                    from, from.plusMonths(1));
+        }
+
+        static Period parse(String name) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new InvalidRequestException("Unknown partition of transactions: " + name);
+            }
+            int year = Integer.parseInt(matcher.group(1));
+            if (matcher.group(2) == null) {
+                return containing(LocalDate.of(year, 1, 1), true);
+            }
+            return containing(LocalDate.of(year, Integer.parseInt(matcher.group(2)), 1), false);
+        }
+    }
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${transactions.partitioning.enabled:false}") boolean enabled,
+                                       @Value("${transactions.partitioning.interval:month}") String interval,
+                                       @Value("${transactions.partitioning.premake:3}") int premake) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.yearly = interval.equalsIgnoreCase("year");
+        this.premake = premake;
+    }
+
+    @PostConstruct
+    public void partitionTable() {
+        if (!enabled) {
+            return;
+        }
+        if (!isPartitioned()) {
+            transactionTemplate.executeWithoutResult(status -> convertToPartitioned());
+        }
+        createUpcomingPartitions();
+    }
+
+    private void convertToPartitioned() {
+        jdbcTemplate.execute("alter table transactions rename to transactions_unpartitioned");
+        jdbcTemplate.execute("create table transactions (like transactions_unpartitioned including defaults) " +
+                "partition by range (date)");
+        jdbcTemplate.execute("create table " + DEFAULT_PARTITION + " partition of transactions default");
+        List<LocalDate> dates = jdbcTemplate.queryForList("select distinct cast(date_trunc('" +
+                (yearly ? "year" : "month") + "', date) as date) from transactions_unpartitioned", LocalDate.class);
+        dates.forEach(date -> attach(Period.containing(date, yearly), true));
+        int copied = jdbcTemplate.update("insert into transactions select * from transactions_unpartitioned");
+        jdbcTemplate.execute("drop table transactions_unpartitioned");
+        jdbcTemplate.execute("alter table transactions add primary key (id, date)");
+        for (Index index : Transaction.class.getAnnotation(Table.class).indexes()) {
+            jdbcTemplate.execute("create index " + index.name() + " on transactions (" + index.columnList() + ")");
+        }
+        jdbcTemplate.execute("alter table transactions add constraint fk_transactions_user_id " +
+                "foreign key (user_id) references users (id)");
+        jdbcTemplate.execute("alter table transactions add constraint fk_transactions_category_id " +
+                "foreign key (category_id) references categories (id)");
+        log.info("Partitioned transactions by {}: {} rows in {} partitions", yearly ? "year" : "month",
+                copied, dates.size());
+    }
+
+    @Scheduled(fixedDelayString = "${transactions.partitioning.maintenance-delay-ms:3600000}")
+    public void createUpcomingPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        Period period = Period.containing(LocalDate.now(), yearly);
+        for (int i = 0; i <= premake; i++) {
+            if (partitionState(period.name()).isEmpty()) {
+                Period created = period;
+                transactionTemplate.executeWithoutResult(status -> attach(created, true));
+                log.info("Created partition {} of transactions", created.name());
+            }
+            period = Period.containing(period.to(), yearly);
+        }
+    }
+
+    public List<Partition> getPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL,
+                (resultSet, rowNum) -> new Partition(resultSet.getString("name"), resultSet.getBoolean("attached")));
+    }
+
+    public void detachPartition(String name) {
+        checkPartitioned();
+        Period period = Period.parse(name);
+        if (!partitionState(period.name()).equals(List.of(true))) {
+            throw new ResourceNotFoundException("Partition " + name + " is not attached");
+        }
+        jdbcTemplate.execute("alter table transactions detach partition " + period.name());
+        log.info("Detached partition {} of transactions", period.name());
+    }
+
+    public void attachPartition(String name) {
+        checkPartitioned();
+        Period period = Period.parse(name);
+        List<Boolean> state = partitionState(period.name());
+        if (state.isEmpty()) {
+            throw new ResourceNotFoundException("Partition " + name + " not found");
+        }
+        if (state.getFirst()) {
+            throw new InvalidRequestException("Partition " + name + " is already attached");
+        }
+        transactionTemplate.executeWithoutResult(status -> attach(period, false));
+        log.info("Attached partition {} of transactions", period.name());
+    }
+
+    private void attach(Period period, boolean create) {
+        if (create) {
+            jdbcTemplate.execute("create table " + period.name() + " (like transactions including defaults)");
+            jdbcTemplate.execute("alter table " + period.name() + " add constraint " + period.name() + "_date " +
+                    "check (date >= '" + period.from() + "' and date < '" + period.to() + "')");
+        }
+        int moved = jdbcTemplate.update("with moved as (delete from " + DEFAULT_PARTITION + " " +
+                        "where date >= ? and date < ? returning *) " +
+                        "insert into " + period.name() + " select * from moved",
+                Date.valueOf(period.from()), Date.valueOf(period.to()));
+        jdbcTemplate.execute("alter table transactions attach partition " + period.name() + " " +
+                "for values from ('" + period.from() + "') to ('" + period.to() + "')");
+        if (moved > 0) {
+            log.info("Moved {} transactions from the default partition to {}", moved, period.name());
+        }
+    }
+
+    private void checkPartitioned() {
+        if (!enabled || !isPartitioned()) {
+            throw new InvalidRequestException("Partitioning of transactions is disabled");
+        }
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class);
+        return count != null && count > 0;
+    }
+
+    private List<Boolean> partitionState(String name) {
+        return jdbcTemplate.queryForList(PARTITION_STATE_SQL, Boolean.class, name);
+    }
+}
@@ -5,14 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
-import ru.pratice.pet_project.personal_finance_management_system.entities.User;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.TransactionSnapshot;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidEntityException;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
 import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
 import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
 
 
 @Slf4j
@@ -22,54 +26,55 @@ public class TransactionSaveAndUpdateService {
     TransactionRepository transactionRepository;
     UserService userService;
     LimitService limitService;
-    TransactionGetService transactionGetService;
+    MonthlyAggregateService monthlyAggregateService;
+    ReadYourWritesTracker readYourWritesTracker;
 
     @Transactional
     public void saveTransaction(Transaction transaction) {
-        trimTypeAndUsername(transaction);
+        trimUsername(transaction);
         checkTransaction(transaction);
         transactionRepository.save(transaction);
+        monthlyAggregateService.add(transaction);
         log.info("Saving transaction: {}", transaction);
         updateTotalAmountAfterSave(transaction);
     }
 
     private void updateTotalAmountAfterSave(Transaction transaction) {
-        if (transaction.getType().equals(TypeOfTransaction.CONSUMPTION_TYPE.name())) {
-            User user = userService.getUserByName(transaction.getUsername());
-            limitService.updateTotalAmountAfterSave(user, transaction.getAmount());
+        if (transaction.getType() == TypeOfTransaction.CONSUMPTION_TYPE) {
+            limitService.updateTotalAmountAfterSave(transaction.getUserId(), transaction.getAmount());
         }
     }
 
-    private void trimTypeAndUsername(Transaction transaction) {
-        transaction.setType(transaction.getType().trim());
+    private void trimUsername(Transaction transaction) {
         transaction.setUsername(transaction.getUsername().trim());
     }
 
     @Transactional
     public void updateTransaction(long id, Transaction transaction) {
-        trimTypeAndUsername(transaction);
+        trimUsername(transaction);
         checkTransaction(transaction);
-        if (transactionRepository.existsById(id)) {
-            transactionRepository.update(
-                    id,
-                    transaction.getDate(),
-                    transaction.getDescription(),
-                    transaction.getUsername(),
-                    transaction.getType(),
-                    transaction.getAmount(),
-                    transaction.getCategory().getId());
-            log.info("Updating transaction {} with id: {}", id, transaction);
-            updateAmountOfExpenses(id, transaction.getAmount(), true);
+        Optional<TransactionSnapshot> previous = transactionRepository.update(
+                id,
+                transaction.getDate(),
+                transaction.getDescription(),
+                transaction.getUserId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getCategory().getId());
+        if (previous.isEmpty()) {
+            saveTransaction(transaction);
+            log.info("Create transaction {}", transaction);
             return;
         }
-        saveTransaction(transaction);
-        log.info("Create transaction {}", transaction);
+        log.info("Updating transaction {} with id: {}", id, transaction);
+        monthlyAggregateService.remove(previous.get());
+        monthlyAggregateService.add(transaction);
+        updateAmountOfExpenses(previous.get(), transaction);
     }
 
     private void checkTransaction(Transaction transaction) {
-        transactionGetService.checkTypeForCorrectness(transaction.getType());
         checkAmountForCorrectness(transaction.getAmount());
-        checkExistenceOfUserByUsername(transaction.getUsername());
+        resolveUserId(transaction);
     }
 
     private void checkAmountForCorrectness(long amount) {
@@ -78,61 +83,76 @@ public class TransactionSaveAndUpdateService {
         }
     }
 
-    private void checkExistenceOfUserByUsername(String username) {
-        userService.getUserByName(username);
+    private void resolveUserId(Transaction transaction) {
+        transaction.setUserId(userService.getUserReferenceByName(transaction.getUsername()).id());
     }
 
     @Transactional
     public void updateAmount(long id, long amount) {
-        isTransactionExistsById(id);
         checkAmountForCorrectness(amount);
-        transactionRepository.updateAmount(id, amount);
+        TransactionSnapshot previous = transactionRepository.updateAmount(id, amount)
+                .orElseThrow(() -> transactionNotFound(id));
         log.info("Updating the transaction amount with id: {}", id);
-        updateAmountOfExpenses(id, amount, true);
+        monthlyAggregateService.applyDelta(previous.getUserId(), previous.getDate(), previous.getCategoryId(),
+                previous.getType(), amount - previous.getAmount(), 0);
+        updateAmountOfExpenses(previous, amount);
     }
 
-    private void isTransactionExistsById(long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Transaction with id: " + id + " not found");
-        }
+    private ResourceNotFoundException transactionNotFound(long id) {
+        return new ResourceNotFoundException("Transaction with id: " + id + " not found");
     }
 
-    public void updateAmountOfExpenses(long id, long amount, boolean isUpdateMethod) {
-        if (isTypeConsumption(id))
-            updateTotalAmountInLimitTable(id, amount, isUpdateMethod);
+    public void updateAmountOfExpenses(TransactionSnapshot previous, long amount) {
+        if (isTypeConsumption(previous.getType()))
+            limitService.updateTotalAmount(previous.getUserId(), previous.getAmount(), amount);
     }
 
-    private boolean isTypeConsumption(long id) {
-        return transactionGetService.getTransactionById(id).getType().equals(TypeOfTransaction.CONSUMPTION_TYPE.name());
+    private void updateAmountOfExpenses(TransactionSnapshot previous, Transaction transaction) {
+        long previousConsumption = isTypeConsumption(previous.getType()) ? previous.getAmount() : 0L;
+        long consumption = isTypeConsumption(transaction.getType()) ? transaction.getAmount() : 0L;
+        if (previous.getUserId() == transaction.getUserId()) {
+            limitService.updateTotalAmount(transaction.getUserId(), previousConsumption, consumption);
+            return;
+        }
+        limitService.updateTotalAmount(previous.getUserId(), previousConsumption, 0L);
+        limitService.updateTotalAmount(transaction.getUserId(), 0L, consumption);
     }
 
-    private void updateTotalAmountInLimitTable(long id, long amount, boolean isUpdateMethod) {
-        User user = userService.getUserByName(transactionGetService.getTransactionById(id).getUsername());
-        if (isUpdateMethod) {
-            long previousAmount = transactionGetService.getTransactionById(id).getAmount();
-            limitService.updateTotalAmount(user, previousAmount, amount);
-        } else
-            limitService.updateTotalAmount(user, 0L, amount);
+    private boolean isTypeConsumption(TypeOfTransaction type) {
+        return type == TypeOfTransaction.CONSUMPTION_TYPE;
     }
 
     @Transactional
     public void updateCategory(long id, long categoryId) {
-        isTransactionExistsById(id);
-        transactionRepository.updateCategoryId(id, categoryId);
+        TransactionSnapshot previous = transactionRepository.updateCategoryId(id, categoryId)
+                .orElseThrow(() -> transactionNotFound(id));
         log.info("Updating the transaction category with id: {}", id);
+        if (previous.getCategoryId() == categoryId) {
+            return;
+        }
+        monthlyAggregateService.remove(previous);
+        monthlyAggregateService.applyDelta(previous.getUserId(), previous.getDate(), categoryId,
+                previous.getType(), previous.getAmount(), 1);
     }
 
     @Transactional
     public void updateDate(long id, LocalDate date) {
-        isTransactionExistsById(id);
-        transactionRepository.updateDate(id, date);
+        TransactionSnapshot previous = transactionRepository.updateDate(id, date)
+                .orElseThrow(() -> transactionNotFound(id));
         log.info("Updating the transaction date with id: {}", id);
+        if (YearMonth.from(previous.getDate()).equals(YearMonth.from(date))) {
+            return;
+        }
+        monthlyAggregateService.remove(previous);
+        monthlyAggregateService.applyDelta(previous.getUserId(), date, previous.getCategoryId(),
+                previous.getType(), previous.getAmount(), 1);
     }
 
     @Transactional
     public void updateDescription(long id, String description) {
-        isTransactionExistsById(id);
-        transactionRepository.updateDescription(id, description.trim());
+        long userId = transactionRepository.updateDescription(id, description.trim())
+                .orElseThrow(() -> transactionNotFound(id));
+        readYourWritesTracker.recordWrite(userId);
         log.info("Updating the transaction description with id: {}", id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public record TransactionSearchCriteria(String username,
+                                        TypeOfTransaction type,
+                                        Set<Long> categoryIds,
+                                        Long minAmount,
+                                        Long maxAmount,
+                                        LocalDate from,
+                                        LocalDate to,
+                                        String description,
+                                        String sortBy,
+                                        String direction,
+                                        int size) {
+}
@@ -0,0 +1,25 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@DependsOn("entityManagerFactory")
+public class TransactionSequenceAligner {
+    static String ALIGN_SEQUENCE_SQL = "select setval('transactions_seq', greatest(" +
+            "(select coalesce(max(id), 0) from transactions) + 50, " +
+            "(select last_value from transactions_seq)))";
+    JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequenceWithExistingIds() {
+        Long value = jdbcTemplate.queryForObject(ALIGN_SEQUENCE_SQL, Long.class);
+        log.info("Transaction id sequence aligned at {}", value);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@DependsOn("entityManagerFactory")
+public class TransactionTypeSchemaMigration {
+    static List<String> TABLES = List.of("transactions", "monthly_aggregates");
+    static String COLUMN_TYPE_SQL = "select data_type from information_schema.columns " +
+            "where table_schema = current_schema() and table_name = ? and column_name = 'type'";
+    JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void convertTypeColumnsToSmallint() {
+        for (String table : TABLES) {
+            List<String> dataType = jdbcTemplate.queryForList(COLUMN_TYPE_SQL, String.class, table);
+            if (!dataType.isEmpty() && dataType.getFirst().equals("character varying")) {
+                jdbcTemplate.execute("alter table " + table + " alter column type type smallint using (case type " +
+                        "when '" + TypeOfTransaction.INCOME_TYPE.name() + "' then " +
+                        TypeOfTransaction.INCOME_TYPE.getCode() + " " +
+                        "when '" + TypeOfTransaction.CONSUMPTION_TYPE.name() + "' then " +
+                        TypeOfTransaction.CONSUMPTION_TYPE.getCode() + " end)");
+                log.info("Converted {}.type to smallint codes", table);
+            }
+        }
+    }
+}
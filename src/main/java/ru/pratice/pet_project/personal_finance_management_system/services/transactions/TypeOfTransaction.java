@@ -1,13 +1,34 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
 
 @Getter
 @AllArgsConstructor
 public enum TypeOfTransaction {
-    INCOME_TYPE("доход"),
-    CONSUMPTION_TYPE("расход");
+    INCOME_TYPE((short) 0, "доход"),
+    CONSUMPTION_TYPE((short) 1, "расход");
 
+    short code;
     String name;
+
+    @JsonCreator
+    public static TypeOfTransaction parse(String type) {
+        return switch (type.trim()) {
+            case "INCOME_TYPE" -> INCOME_TYPE;
+            case "CONSUMPTION_TYPE" -> CONSUMPTION_TYPE;
+            default -> throw new InvalidRequestException("The type should be '" + INCOME_TYPE.name()
+                    + "' or '" + CONSUMPTION_TYPE.name() + "'");
+        };
+    }
+
+    public static TypeOfTransaction fromCode(short code) {
+        return switch (code) {
+            case 0 -> INCOME_TYPE;
+            case 1 -> CONSUMPTION_TYPE;
+            default -> throw new IllegalStateException("Unknown transaction type code: " + code);
+        };
+    }
 }
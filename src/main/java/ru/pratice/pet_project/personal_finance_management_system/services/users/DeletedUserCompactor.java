@@ -0,0 +1,92 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.RemovedTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class DeletedUserCompactor {
+    UserRepository userRepository;
+    TransactionRepository transactionRepository;
+    LimitService limitService;
+    MonthlyAggregateService monthlyAggregateService;
+    TransactionTemplate transactionTemplate;
+    int batchSize;
+    boolean enabled;
+    @NonFinal
+    volatile Progress current;
+    LongAdder usersPurged = new LongAdder();
+    LongAdder transactionsPurged = new LongAdder();
+
+    public record Progress(long userId, long transactionsTotal, long transactionsPurged) {
+    }
+
+    public record Stats(long pendingUsers, Progress current, long usersPurged, long transactionsPurged) {
+    }
+
+    public DeletedUserCompactor(UserRepository userRepository,
+                                TransactionRepository transactionRepository,
+                                LimitService limitService,
+                                MonthlyAggregateService monthlyAggregateService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${users.compaction.batch-size:1000}") int batchSize,
+                                @Value("${users.deletion.mode:sync}") String deletionMode) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.limitService = limitService;
+        this.monthlyAggregateService = monthlyAggregateService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.enabled = deletionMode.equals("tombstone");
+    }
+
+    @Scheduled(fixedDelayString = "${users.compaction.delay-ms:200}")
+    public void purgeNextChunk() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> userIds = userRepository.findDeletedUserIds(1);
+        if (userIds.isEmpty()) {
+            current = null;
+            return;
+        }
+        long userId = userIds.getFirst();
+        Progress progress = current;
+        if (progress == null || progress.userId() != userId) {
+            progress = new Progress(userId, transactionRepository.countTransactionsByUserId(userId), 0);
+        }
+        long removed = transactionTemplate.execute(status -> transactionRepository
+                .deleteChunkByUserId(userId, batchSize).stream()
+                .mapToLong(RemovedTotals::getRemovedCount)
+                .sum());
+        transactionsPurged.add(removed);
+        progress = new Progress(userId, progress.transactionsTotal(), progress.transactionsPurged() + removed);
+        current = progress;
+        if (removed < batchSize) {
+            transactionTemplate.executeWithoutResult(status -> {
+                monthlyAggregateService.deleteByUserId(userId);
+                limitService.deleteLimitByUserId(userId);
+                userRepository.deleteUserById(userId);
+            });
+            usersPurged.increment();
+            current = null;
+            log.info("Purged deleted user {} with {} transactions", userId, progress.transactionsPurged());
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(userRepository.countDeletedUsers(), current, usersPurged.sum(), transactionsPurged.sum());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ReadYourWritesTracker {
+    ConcurrentHashMap<Long, Long> lastWriteAt = new ConcurrentHashMap<>();
+    ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+    long windowMs;
+
+    public ReadYourWritesTracker(@Value("${datasource.replica.read-your-writes-ms:0}") long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void recordWrite(long userId) {
+        if (windowMs <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWriteAt.put(userId, System.currentTimeMillis());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteAt.put(userId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    public void routeReadsOf(long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || replicaAllowed.get() != null || wroteRecently(userId)) {
+            return;
+        }
+        replicaAllowed.set(true);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                replicaAllowed.remove();
+            }
+        });
+    }
+
+    private boolean wroteRecently(long userId) {
+        Long writtenAt = lastWriteAt.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt < windowMs) {
+            return true;
+        }
+        lastWriteAt.remove(userId, writtenAt);
+        return false;
+    }
+
+    public boolean isReplicaAllowed() {
+        return replicaAllowed.get() != null;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.cleanup-delay-ms:60000}")
+    public void forgetExpiredWrites() {
+        long now = System.currentTimeMillis();
+        lastWriteAt.values().removeIf(writtenAt -> now - writtenAt >= windowMs);
+    }
+}
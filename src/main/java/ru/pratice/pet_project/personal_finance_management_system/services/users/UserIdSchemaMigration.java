@@ -0,0 +1,100 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.entities.MonthlyAggregate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class UserIdSchemaMigration {
+    static List<Table> TABLES = List.of(Transaction.class.getAnnotation(Table.class),
+            LimitTracker.class.getAnnotation(Table.class), MonthlyAggregate.class.getAnnotation(Table.class));
+    static String HAS_COLUMN_SQL = "select count(*) from information_schema.columns " +
+            "where table_schema = current_schema() and table_name = ? and column_name = ?";
+    static String HAS_CONSTRAINT_SQL = "select count(*) from information_schema.table_constraints " +
+            "where table_schema = current_schema() and table_name = ? and constraint_name = ?";
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    boolean deleteOrphans;
+
+    public UserIdSchemaMigration(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${users.migration.delete-orphans:false}") boolean deleteOrphans) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.deleteOrphans = deleteOrphans;
+    }
+
+    @PostConstruct
+    public void migrateUsernameColumnsToUserId() {
+        for (Table table : TABLES) {
+            if (hasColumn(table.name(), "username")) {
+                transactionTemplate.executeWithoutResult(status -> replaceUsernameWithUserId(table));
+            }
+        }
+        addForeignKey("transactions", "fk_transactions_user_id");
+        addForeignKey("limits", "fk_limits_user_id");
+    }
+
+    // Hibernate's schema update ran before user_id existed, so its indexes and constraints on user_id are created here
+    private void replaceUsernameWithUserId(Table entityTable) {
+        String table = entityTable.name();
+        jdbcTemplate.execute("alter table " + table + " add column if not exists user_id bigint");
+        int updated = jdbcTemplate.update("update " + table + " t set user_id = u.id from users u " +
+                "where t.user_id is null and u.username = t.username");
+        Integer orphaned = jdbcTemplate.queryForObject("select count(*) from " + table + " where user_id is null",
+                Integer.class);
+        if (orphaned != null && orphaned > 0) {
+            if (!deleteOrphans) {
+                throw new IllegalStateException(table + " has " + orphaned + " rows whose username matches " +
+                        "no user; set users.migration.delete-orphans=true to delete them and migrate");
+            }
+            log.warn("Deleting {} rows of {} whose username matches no user", orphaned, table);
+            jdbcTemplate.update("delete from " + table + " where user_id is null");
+        }
+        jdbcTemplate.execute("alter table " + table + " alter column user_id set not null");
+        jdbcTemplate.execute("alter table " + table + " drop column username");
+        for (Index index : entityTable.indexes()) {
+            jdbcTemplate.execute("create index if not exists " + index.name() + " on " + table +
+                    " (" + index.columnList() + ")");
+        }
+        for (UniqueConstraint constraint : entityTable.uniqueConstraints()) {
+            if (!hasConstraint(table, constraint.name())) {
+                jdbcTemplate.execute("alter table " + table + " add constraint " + constraint.name() +
+                        " unique (" + String.join(", ", constraint.columnNames()) + ")");
+            }
+        }
+        log.info("Migrated {} rows of {} to user_id, removed {} orphaned rows", updated, table, orphaned);
+    }
+
+    private void addForeignKey(String table, String constraint) {
+        if (!hasConstraint(table, constraint)) {
+            jdbcTemplate.execute("alter table " + table + " add constraint " + constraint +
+                    " foreign key (user_id) references users (id)");
+            log.info("Added foreign key {} on {}", constraint, table);
+        }
+    }
+
+    private boolean hasConstraint(String table, String constraint) {
+        Integer count = jdbcTemplate.queryForObject(HAS_CONSTRAINT_SQL, Integer.class, table, constraint);
+        return count != null && count > 0;
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(HAS_COLUMN_SQL, Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
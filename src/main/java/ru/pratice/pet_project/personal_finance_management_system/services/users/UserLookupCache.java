@@ -0,0 +1,92 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class UserLookupCache {
+    UserRepository userRepository;
+    Map<String, Entry> usersByName = new ConcurrentHashMap<>();
+    Map<Long, Entry> usersById = new ConcurrentHashMap<>();
+    AtomicLong generation = new AtomicLong();
+    int maxSize;
+    long ttlMs;
+
+    private record Entry(UserReference user, long expiresAt) {
+    }
+
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${users.cache.max-size:10000}") int maxSize,
+                           @Value("${users.cache.ttl-ms:600000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    public UserReference getByUsername(String username) {
+        Entry entry = usersByName.get(username);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.user();
+        }
+        return load(() -> userRepository.findUserByName(username).map(UserReference::of).orElseThrow(
+                () -> new ResourceNotFoundException("User with name: " + username + " not found")));
+    }
+
+    public UserReference getById(long id) {
+        Entry entry = usersById.get(id);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.user();
+        }
+        return load(() -> userRepository.findById(id).map(UserReference::of).orElseThrow(
+                () -> new ResourceNotFoundException("User with id: " + id + " not found")));
+    }
+
+    private UserReference load(Supplier<UserReference> loader) {
+        long loadedGeneration = generation.get();
+        UserReference user = loader.get();
+        if (loadedGeneration == generation.get()) {
+            evictIfFull(usersByName);
+            evictIfFull(usersById);
+            Entry entry = new Entry(user, System.currentTimeMillis() + ttlMs);
+            usersByName.put(user.username(), entry);
+            usersById.put(user.id(), entry);
+        }
+        return user;
+    }
+
+    private void evictIfFull(Map<?, Entry> users) {
+        Iterator<?> keys = users.keySet().iterator();
+        while (users.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public void invalidate(long id, String username) {
+        evict(id, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, username);
+                }
+            });
+        }
+    }
+
+    private void evict(long id, String username) {
+        generation.incrementAndGet();
+        usersByName.remove(username);
+        usersById.remove(id);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import ru.pratice.pet_project.personal_finance_management_system.entities.User;
+
+public record UserReference(long id, String username, String email) {
+
+    public static UserReference of(User user) {
+        return new UserReference(user.getId(), user.getUsername(), user.getEmail());
+    }
+}
@@ -1,58 +1,103 @@
 package ru.pratice.pet_project.personal_finance_management_system.services.users;
 
-import jakarta.transaction.Transactional;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
-import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
 import ru.pratice.pet_project.personal_finance_management_system.entities.User;
 import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidEntityException;
 import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
 import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
 
 
 @Slf4j
-@AllArgsConstructor
 @Service
 public class UserService {
     UserRepository userRepository;
     TransactionRepository transactionRepository;
-    LimitRepository limitRepository;
     LimitService limitService;
+    MonthlyAggregateService monthlyAggregateService;
+    UserLookupCache userLookupCache;
+    ReadYourWritesTracker readYourWritesTracker;
+    boolean tombstoneDeletion;
 
+    public UserService(UserRepository userRepository,
+                       TransactionRepository transactionRepository,
+                       LimitService limitService,
+                       MonthlyAggregateService monthlyAggregateService,
+                       UserLookupCache userLookupCache,
+                       ReadYourWritesTracker readYourWritesTracker,
+                       @Value("${users.deletion.mode:sync}") String deletionMode) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.limitService = limitService;
+        this.monthlyAggregateService = monthlyAggregateService;
+        this.userLookupCache = userLookupCache;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.tombstoneDeletion = deletionMode.equals("tombstone");
+    }
+
+    @Transactional(readOnly = true)
     public User getUserById(long id) {
+        readYourWritesTracker.routeReadsOf(id);
         return userRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("User with id: " + id + " not found"));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByName(String name) {
+        readYourWritesTracker.routeReadsOf(userLookupCache.getByUsername(name).id());
         return userRepository.findUserByName(name).orElseThrow(
                 () -> new ResourceNotFoundException("User with name: " + name + " not found"));
     }
 
+    public UserReference getUserReferenceByName(String name) {
+        return userLookupCache.getByUsername(name);
+    }
+
     @Transactional
     public void deleteUserById(long id) {
         isUserExistsById(id);
-        cleanUpInOtherTables(getUserById(id));
+        User user = getUserById(id);
+        if (markDeleted(user)) {
+            return;
+        }
+        cleanUpInOtherTables(user);
         userRepository.deleteUserById(id);
         log.info("Deleting user with id: {}", id);
     }
+
+    private boolean markDeleted(User user) {
+        if (!tombstoneDeletion) {
+            return false;
+        }
+        userRepository.markDeleted(user.getId());
+        userLookupCache.invalidate(user.getId(), user.getUsername());
+        log.info("User {} marked as deleted, rows are purged in the background", user);
+        return true;
+    }
     private void cleanUpInOtherTables(User user) {
-        transactionRepository.deleteTransactionByUsername(user.getUsername());
+        transactionRepository.deleteTransactionByUserId(user.getId());
         log.info("Cleaning up transactions with username: {}", user.getUsername());
-        limitRepository.deleteLimitsByUsername(user.getUsername());
+        limitService.deleteLimitByUserId(user.getId());
         log.info("Cleaning up limit with username: {}", user.getUsername());
+        monthlyAggregateService.deleteByUserId(user.getId());
+        userLookupCache.invalidate(user.getId(), user.getUsername());
     }
 
     @Transactional
     public void deleteUserByName(String name) {
         User user = getUserByName(name);
+        if (markDeleted(user)) {
+            return;
+        }
+        cleanUpInOtherTables(user);
         userRepository.deleteUserByName(name);
         log.info("Deleting user {} by name", user);
-        cleanUpInOtherTables(user);
     }
 
     public void create(User user, long limit) {
@@ -60,10 +105,11 @@ public class UserService {
         try {
             userRepository.save(user);
             limitService.saveLimit(LimitTracker.builder()
-                    .username(user.getUsername())
+                    .userId(user.getId())
                     .limitAmount(limit)
                     .totalAmount(0L)
                     .build());
+            readYourWritesTracker.recordWrite(user.getId());
         } catch (Exception e) {
             throw new InvalidEntityException(e.getMessage());
         }
@@ -84,30 +130,32 @@ public class UserService {
                 log.info("Create user {}", user);
                 return;
             }
-            updateUsernameOfAnotherEntities(user.getUsername(), id);
+            invalidateCachedUser(id, user.getUsername());
             userRepository.updateUser(
                     user.getId(),
                     user.getEmail(),
                     user.getUsername(),
                     user.getPassword(),
                     user.getBirth());
+            readYourWritesTracker.recordWrite(id);
         } catch (Exception e) {
             throw new InvalidEntityException(e.getMessage());
         }
         log.info("Update user {} since user with id: {}", user, id);
     }
 
-    private void updateUsernameOfAnotherEntities(String username, long id) {
-        transactionRepository.updateName(username, getUserById(id).getUsername());
-        limitRepository.updateUsername(username, getUserById(id).getUsername());
+    private void invalidateCachedUser(long id, String username) {
+        userLookupCache.invalidate(id, getUserById(id).getUsername());
+        userLookupCache.invalidate(id, username);
     }
 
     @Transactional
     public void updateName(long id, String name) {
         isUserExistsById(id);
         try {
-            updateUsernameOfAnotherEntities(name, id);
+            invalidateCachedUser(id, name);
             userRepository.updateName(id, name);
+            readYourWritesTracker.recordWrite(id);
             log.info("Updating user name {} with id: {}", name, id);
         } catch (Exception e) {
             throw new InvalidEntityException(e.getMessage());
@@ -124,6 +172,7 @@ public class UserService {
     public void updatePassword(long id, String password) {
         isUserExistsById(id);
         userRepository.updatePassword(id, password);
+        readYourWritesTracker.recordWrite(id);
         log.info("Updating user password {} with id: {}", password, id);
     }
 }
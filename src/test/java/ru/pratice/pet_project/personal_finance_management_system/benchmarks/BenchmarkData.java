@@ -0,0 +1,57 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.entities.User;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class BenchmarkData {
+    static long USER_ID = 1L;
+    static String USERNAME = "benchmark-user";
+    static int CATEGORIES = 20;
+    static LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername(USERNAME);
+        user.setEmail(USERNAME + "@example.com");
+        user.setPassword("password");
+        user.setBirth(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    static List<Category> categories() {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (long id = 1; id <= CATEGORIES; id++) {
+            categories.add(new Category(id, "category-" + id));
+        }
+        return categories;
+    }
+
+    static List<Transaction> transactions(int count, TypeOfTransaction type) {
+        SplittableRandom random = new SplittableRandom(count);
+        List<Category> categories = categories();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setUserId(USER_ID);
+            transaction.setType(type);
+            transaction.setAmount(random.nextLong(1, 100_000));
+            transaction.setDate(FIRST_DATE.plusDays(random.nextInt(5 * 365)));
+            transaction.setCategory(categories.get(random.nextInt(CATEGORIES)));
+            transaction.setDescription("transaction " + i);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import lombok.experimental.NonFinal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitEmail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+    static String CONTENT_HTML_FILE_NAME = "emails/ExceedingLimitEmailContent.html";
+    @NonFinal
+    long limitAmount = 1000;
+    @NonFinal
+    long totalAmount = 1200;
+
+    @Benchmark
+    public String classpathReadAndReplace() throws IOException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(CONTENT_HTML_FILE_NAME)) {
+            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            content = content.replace("{{limitAmount}}", String.valueOf(limitAmount));
+            return content.replace("{{totalAmount}}", String.valueOf(totalAmount));
+        }
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return new ExceedingLimitEmail(limitAmount, totalAmount).getContent();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,217 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.PersonalFinanceManagementSystemApplication;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against an embedded PostgreSQL, seeds {@code load.users} users with
+ * {@code load.transactions-per-user} transactions each and drives a mixed read/write workload through
+ * the REST controllers with {@code load.concurrency} clients. The run is repeated for every mode in
+ * {@code load.thread-modes} ({@code platform} and/or {@code virtual} request threads) on a fresh database.
+ * Latency percentiles and throughput per endpoint are printed and written to {@code load.result-file}.
+ */
+public class EndToEndLoadBenchmark {
+    static int USERS = Integer.getInteger("load.users", 50);
+    static int TRANSACTIONS_PER_USER = Integer.getInteger("load.transactions-per-user", 2000);
+    static int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    static int POOL_SIZE = Integer.getInteger("load.pool-size", 20);
+    static List<String> THREAD_MODES = List.of(System.getProperty("load.thread-modes", "platform,virtual").split(","));
+    static int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 15);
+    static int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 60);
+    static int WRITE_PERCENT = Integer.getInteger("load.write-percent", 20);
+    static long SEED = Long.getLong("load.seed", 42L);
+    static String RESULT_FILE = System.getProperty("load.result-file", "target/load-result.json");
+    static ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record EndpointResult(String endpoint, long requests, long errors, double throughputPerSecond,
+                          double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private record Call(String endpoint, HttpRequest request) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<EndpointResult>> resultsByMode = new LinkedHashMap<>();
+        for (String mode : THREAD_MODES) {
+            resultsByMode.put(mode.trim(), run(mode.trim(), args));
+        }
+        writeResults(resultsByMode);
+    }
+
+    private static List<EndpointResult> run(String mode, String[] args) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                     PersonalFinanceManagementSystemApplication.class)
+                     .run(arguments(postgres, mode.equals("virtual"), args))) {
+            LoadDataGenerator.Dataset dataset = new LoadDataGenerator(context.getBean(JdbcTemplate.class),
+                    new SplittableRandom(SEED)).seed(USERS, TRANSACTIONS_PER_USER);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("[%s] Seeded %d users x %d transactions, warming up for %ds%n",
+                    mode, USERS, TRANSACTIONS_PER_USER, WARMUP_SECONDS);
+            drive(baseUrl, dataset, Duration.ofSeconds(WARMUP_SECONDS));
+            Map<String, LatencySamples> samples = drive(baseUrl, dataset, Duration.ofSeconds(DURATION_SECONDS));
+            return report(mode, samples);
+        }
+    }
+
+    // passed as command line arguments so that they take precedence over application.properties
+    private static String[] arguments(EmbeddedPostgres postgres, boolean virtualThreads, String[] args) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.datasource.hikari.maximum-pool-size", POOL_SIZE);
+        properties.put("spring.threads.virtual.enabled", virtualThreads);
+        properties.put("server.port", 0);
+        properties.put("spring.mail.host", "localhost");
+        properties.put("email.outbox.poll-delay-ms", Long.MAX_VALUE / 2);
+        properties.put("logging.level.ru.pratice.pet_project", "warn");
+        return Stream.concat(properties.entrySet().stream()
+                        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue()), Arrays.stream(args))
+                .toArray(String[]::new);
+    }
+
+    private static Map<String, LatencySamples> drive(String baseUrl, LoadDataGenerator.Dataset dataset,
+                                                     Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<String, LatencySamples>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < CONCURRENCY; worker++) {
+                SplittableRandom random = new SplittableRandom(SEED + worker);
+                workers.add(executor.submit(() -> runClient(client, baseUrl, dataset, random, deadline)));
+            }
+            Map<String, LatencySamples> merged = new TreeMap<>();
+            for (Future<Map<String, LatencySamples>> worker : workers) {
+                worker.get().forEach((endpoint, samples) ->
+                        merged.computeIfAbsent(endpoint, key -> new LatencySamples()).addAll(samples));
+            }
+            return merged;
+        }
+    }
+
+    private static Map<String, LatencySamples> runClient(HttpClient client, String baseUrl,
+                                                         LoadDataGenerator.Dataset dataset,
+                                                         SplittableRandom random, long deadline) {
+        Map<String, LatencySamples> samples = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            Call call = nextCall(baseUrl, dataset, random);
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                failed = client.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (Exception e) {
+                failed = true;
+            }
+            samples.computeIfAbsent(call.endpoint(), key -> new LatencySamples())
+                    .record(System.nanoTime() - start, failed);
+        }
+        return samples;
+    }
+
+    private static Call nextCall(String baseUrl, LoadDataGenerator.Dataset dataset, SplittableRandom random) {
+        String username = dataset.usernames().get(random.nextInt(dataset.usernames().size()));
+        if (random.nextInt(100) < WRITE_PERCENT) {
+            if (random.nextBoolean()) {
+                long id = dataset.transactionIds()[random.nextInt(dataset.transactionIds().length)];
+                return new Call("PATCH transactions_update/amount", HttpRequest.newBuilder(URI.create(baseUrl +
+                                "/api/transactions_update/amount?id=" + id + "&amount=" + random.nextLong(1, 100_000)))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+            return new Call("POST transactions/save", HttpRequest.newBuilder(URI.create(baseUrl +
+                            "/api/transactions/save"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(transactionJson(username, dataset, random)))
+                    .build());
+        }
+        return switch (random.nextInt(5)) {
+            case 0 -> get("GET transactions_get/by-username/page", baseUrl +
+                    "/api/transactions_get/by-username/" + username + "/page?size=50");
+            case 1 -> get("GET transactions_get/filtered-by-type/page", baseUrl +
+                    "/api/transactions_get/filtered-by-type/page?type=CONSUMPTION_TYPE&size=50&username=" + username);
+            case 2 -> get("GET transactions_get/search", baseUrl + "/api/transactions_get/search?username=" +
+                    username + "&minAmount=1000&maxAmount=20000&sortBy=amount&size=50");
+            case 3 -> get("GET aggregates/monthly-totals", baseUrl + "/api/aggregates/monthly-totals?username=" +
+                    username + "&from=" + LocalDate.now().minusYears(1).toString().substring(0, 7) +
+                    "&to=" + LocalDate.now().toString().substring(0, 7));
+            default -> get("GET limits/get-by-username", baseUrl + "/api/limits/get-by-username?username=" + username);
+        };
+    }
+
+    private static Call get(String endpoint, String url) {
+        return new Call(endpoint, HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private static String transactionJson(String username, LoadDataGenerator.Dataset dataset,
+                                          SplittableRandom random) {
+        TypeOfTransaction type = random.nextInt(4) == 0
+                ? TypeOfTransaction.INCOME_TYPE
+                : TypeOfTransaction.CONSUMPTION_TYPE;
+        long categoryId = dataset.categoryIds().get(random.nextInt(dataset.categoryIds().size()));
+        return "{\"amount\":" + random.nextLong(1, 100_000) +
+                ",\"date\":\"" + LocalDate.now().minusDays(random.nextInt(30)) +
+                "\",\"type\":\"" + type.name() +
+                "\",\"username\":\"" + username +
+                "\",\"description\":\"load test\",\"category\":{\"id\":" + categoryId +
+                ",\"name\":\"load-category\"}}";
+    }
+
+    private static List<EndpointResult> report(String mode, Map<String, LatencySamples> samples) {
+        List<EndpointResult> results = new ArrayList<>();
+        LatencySamples total = new LatencySamples();
+        samples.forEach((endpoint, endpointSamples) -> {
+            results.add(result(endpoint, endpointSamples));
+            total.addAll(endpointSamples);
+        });
+        results.add(result("TOTAL", total));
+        System.out.printf("[%s] %-45s %10s %8s %10s %10s %10s %10s%n", mode,
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (EndpointResult result : results) {
+            System.out.printf("[%s] %-45s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", mode, result.endpoint(),
+                    result.requests(), result.errors(), result.throughputPerSecond(), result.p50Millis(),
+                    result.p99Millis(), result.maxMillis());
+        }
+        return results;
+    }
+
+    private static void writeResults(Map<String, List<EndpointResult>> resultsByMode) throws Exception {
+        File resultFile = new File(RESULT_FILE);
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        OBJECT_MAPPER.writeValue(resultFile, Map.of(
+                "users", USERS,
+                "transactionsPerUser", TRANSACTIONS_PER_USER,
+                "concurrency", CONCURRENCY,
+                "poolSize", POOL_SIZE,
+                "durationSeconds", DURATION_SECONDS,
+                "writePercent", WRITE_PERCENT,
+                "modes", resultsByMode));
+    }
+
+    private static EndpointResult result(String endpoint, LatencySamples samples) {
+        return new EndpointResult(endpoint, samples.count(), samples.errors(),
+                (double) samples.count() / DURATION_SECONDS, samples.percentileMillis(50),
+                samples.percentileMillis(99), samples.percentileMillis(100));
+    }
+}
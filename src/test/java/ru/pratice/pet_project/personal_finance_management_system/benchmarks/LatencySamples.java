@@ -0,0 +1,51 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import lombok.experimental.NonFinal;
+
+import java.util.Arrays;
+
+class LatencySamples {
+    @NonFinal
+    long[] nanos = new long[1024];
+    @NonFinal
+    int size;
+    @NonFinal
+    long errors;
+
+    void record(long latencyNanos, boolean failed) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    void addAll(LatencySamples other) {
+        if (size + other.size > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+        }
+        System.arraycopy(other.nanos, 0, nanos, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.clamp(index, 0, size - 1)] / 1_000_000.0;
+    }
+}
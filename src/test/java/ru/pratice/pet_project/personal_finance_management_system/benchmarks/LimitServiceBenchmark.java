@@ -0,0 +1,74 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.experimental.NonFinal;
+import org.openjdk.jmh.annotations.*;
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.EmailOutboxRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.EmailOutboxService;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.*;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LimitServiceBenchmark {
+    @Param({"sync", "in-memory"})
+    @NonFinal
+    String mode;
+    @NonFinal
+    LimitService limitService;
+
+    @Setup
+    public void setUp() {
+        LimitRepository limitRepository = mock(LimitRepository.class, withSettings().stubOnly());
+        LimitTotals totals = new LimitTotals() {
+            @Override
+            public long getTotalAmount() {
+                return 500;
+            }
+
+            @Override
+            public long getLimitAmount() {
+                return Long.MAX_VALUE;
+            }
+        };
+        when(limitRepository.addToTotalAmount(anyLong(), anyLong())).thenReturn(Optional.of(totals));
+        LimitAccounting limitAccounting = mode.equals("sync")
+                ? new DatabaseLimitAccounting(limitRepository)
+                : new InMemoryLimitAccounting(limitRepository, null, 500);
+        limitAccounting.track(LimitTracker.builder()
+                .userId(BenchmarkData.USER_ID)
+                .limitAmount(Long.MAX_VALUE)
+                .totalAmount(0L)
+                .build());
+        UserLookupCache userLookupCache = new UserLookupCache(mock(UserRepository.class, withSettings().stubOnly()),
+                100, Long.MAX_VALUE / 2);
+        LimitBreachNotifier notifier = new LimitBreachNotifier(new EmailOutboxService(
+                mock(EmailOutboxRepository.class, withSettings().stubOnly()), 5, 1000, 60000, 300000,
+                new SimpleMeterRegistry()),
+                userLookupCache, 3600000, false, new SimpleMeterRegistry());
+        limitService = new LimitService(limitRepository, limitAccounting,
+                new LimitExceedanceTracker(limitAccounting, notifier, new SimpleMeterRegistry()), userLookupCache,
+                new ReadYourWritesTracker(0));
+    }
+
+    @Benchmark
+    public void updateTotalAmount() {
+        limitService.updateTotalAmount(BenchmarkData.USER_ID, 100, 150);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+@AllArgsConstructor
+class LoadDataGenerator {
+    static int CATEGORIES = 20;
+    static int DAYS_OF_HISTORY = 730;
+    static int BATCH_SIZE = 1000;
+    static String INSERT_TRANSACTION_SQL = "insert into transactions " +
+            "(id, amount, date, type, user_id, description, category_id) " +
+            "values (nextval('transactions_seq'), ?, ?, ?, ?, ?, ?)";
+    JdbcTemplate jdbcTemplate;
+    SplittableRandom random;
+
+    record Dataset(List<String> usernames, List<Long> categoryIds, long[] transactionIds) {
+    }
+
+    Dataset seed(int users, int transactionsPerUser) {
+        List<Long> categoryIds = seedCategories();
+        List<String> usernames = new ArrayList<>(users);
+        LocalDate today = LocalDate.now();
+        for (int user = 0; user < users; user++) {
+            String username = "load-user-" + user;
+            jdbcTemplate.update("insert into users (username, email, password, birth) values (?, ?, ?, ?)",
+                    username, username + "@example.com", "password", Date.valueOf(LocalDate.of(1990, 1, 1)));
+            Long userId = jdbcTemplate.queryForObject("select id from users where username = ?", Long.class,
+                    username);
+            jdbcTemplate.update("insert into limits (user_id, limit_amount, total_amount) values (?, ?, 0)",
+                    userId, Long.MAX_VALUE / 2);
+            seedTransactions(userId, transactionsPerUser, categoryIds, today);
+            usernames.add(username);
+        }
+        jdbcTemplate.update("update limits l set total_amount = coalesce((select sum(t.amount) from transactions t " +
+                "where t.user_id = l.user_id and t.type = ?), 0)", TypeOfTransaction.CONSUMPTION_TYPE.getCode());
+        jdbcTemplate.update("insert into monthly_aggregates " +
+                "(user_id, period, category_id, type, total_amount, transactions_count) " +
+                "select user_id, cast(date_trunc('month', date) as date), category_id, type, sum(amount), count(*) " +
+                "from transactions group by user_id, cast(date_trunc('month', date) as date), category_id, type");
+        jdbcTemplate.execute("analyze");
+        long[] transactionIds = jdbcTemplate.queryForList("select id from transactions", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        return new Dataset(usernames, categoryIds, transactionIds);
+    }
+
+    private List<Long> seedCategories() {
+        for (int category = 0; category < CATEGORIES; category++) {
+            jdbcTemplate.update("insert into categories (name) values (?) on conflict do nothing",
+                    "load-category-" + category);
+        }
+        return jdbcTemplate.queryForList("select id from categories order by id", Long.class);
+    }
+
+    private void seedTransactions(long userId, int count, List<Long> categoryIds, LocalDate today) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            TypeOfTransaction type = random.nextInt(4) == 0
+                    ? TypeOfTransaction.INCOME_TYPE
+                    : TypeOfTransaction.CONSUMPTION_TYPE;
+            batch.add(new Object[]{
+                    random.nextLong(1, 100_000),
+                    Date.valueOf(today.minusDays(random.nextInt(DAYS_OF_HISTORY))),
+                    type.getCode(),
+                    userId,
+                    "seeded transaction " + i,
+                    categoryIds.get(random.nextInt(categoryIds.size()))});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, batch);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.experimental.NonFinal;
+import org.openjdk.jmh.annotations.*;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.CategoryRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryCache;
+import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TransactionGetService;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionGetServiceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    @NonFinal
+    int transactionsPerUser;
+    @NonFinal
+    TransactionGetService transactionGetService;
+
+    @Setup
+    public void setUp() {
+        List<Transaction> transactions = BenchmarkData.transactions(transactionsPerUser,
+                TypeOfTransaction.CONSUMPTION_TYPE);
+        TransactionRepository transactionRepository = mock(TransactionRepository.class, withSettings().stubOnly());
+        when(transactionRepository.findTransactionsByType(anyLong(), any())).thenReturn(transactions);
+        when(transactionRepository.filteredByAmountTransactions(anyLong(), any(), anyLong(), anyLong()))
+                .thenReturn(transactions);
+        when(transactionRepository.findTransactionsByDateRange(anyLong(), any(), any(), any()))
+                .thenReturn(transactions);
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findUserByName(BenchmarkData.USERNAME)).thenReturn(Optional.of(BenchmarkData.user()));
+        CategoryRepository categoryRepository = mock(CategoryRepository.class, withSettings().stubOnly());
+        transactionGetService = new TransactionGetService(transactionRepository,
+                new CategoryService(categoryRepository, new CategoryCache(1000, new SimpleMeterRegistry())),
+                new UserLookupCache(userRepository, 100, Long.MAX_VALUE / 2), new ReadYourWritesTracker(0),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<Transaction> filteredByType() {
+        return transactionGetService.getTransactionsByType(TypeOfTransaction.CONSUMPTION_TYPE, BenchmarkData.USERNAME);
+    }
+
+    @Benchmark
+    public List<Transaction> filteredByAmount() {
+        return transactionGetService.getFilteredByAmountTransactions(TypeOfTransaction.CONSUMPTION_TYPE,
+                BenchmarkData.USERNAME, 100, 50_000);
+    }
+
+    @Benchmark
+    public List<Transaction> filteredByMonths() {
+        return transactionGetService.getFilteredByMonthsTransactions(TypeOfTransaction.CONSUMPTION_TYPE,
+                BenchmarkData.USERNAME, (short) 1, (short) 12, LocalDate.now().getYear() - 1);
+    }
+}
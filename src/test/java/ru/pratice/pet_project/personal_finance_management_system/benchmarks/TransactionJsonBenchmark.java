@@ -0,0 +1,46 @@
+package ru.pratice.pet_project.personal_finance_management_system.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.NonFinal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Transaction;
+import ru.pratice.pet_project.personal_finance_management_system.services.transactions.TypeOfTransaction;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionJsonBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    @NonFinal
+    int transactionsPerUser;
+    @NonFinal
+    List<Transaction> transactions;
+    @NonFinal
+    Transaction transaction;
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(transactionsPerUser, TypeOfTransaction.INCOME_TYPE);
+        transactions.forEach(item -> item.setUsername(BenchmarkData.USERNAME));
+        transaction = transactions.getFirst();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public String serializeSingle() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(transaction);
+    }
+}
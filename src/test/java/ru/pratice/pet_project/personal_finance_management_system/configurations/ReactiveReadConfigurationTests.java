@@ -0,0 +1,43 @@
+package ru.pratice.pet_project.personal_finance_management_system.configurations;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveReadConfigurationTests {
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ReactiveReadConfiguration.class)
+            .withPropertyValues(
+                    "transactions.reactive.enabled=true",
+                    "transactions.reactive.r2dbc-url=r2dbc:postgresql://localhost:5432/financemanagementsystem",
+                    "spring.datasource.url=jdbc:postgresql://localhost:5432/financemanagementsystem",
+                    "spring.datasource.username=postgres",
+                    "spring.datasource.password=postgres");
+
+    @Test
+    void keepsTheJdbcDataSourceWhenTheReactiveApiIsEnabled() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeansOfType(DataSource.class).size());
+            assertEquals(1, context.getBeansOfType(DatabaseClient.class).size());
+            assertEquals(0, context.getBeansOfType(ConnectionFactory.class).size());
+        });
+    }
+
+    @Test
+    void createsNoReactiveBeansWhenTheReactiveApiIsDisabled() {
+        contextRunner.withPropertyValues("transactions.reactive.enabled=false").run(context -> {
+            assertEquals(1, context.getBeansOfType(DataSource.class).size());
+            assertEquals(0, context.getBeansOfType(DatabaseClient.class).size());
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package ru.pratice.pet_project.personal_finance_management_system.configurations;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.experimental.NonFinal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.User;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTests {
+    @NonFinal
+    static EmbeddedPostgres primary;
+    @NonFinal
+    static EmbeddedPostgres replica;
+
+    ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(60000);
+    DataSource dataSource = new ReadReplicaConfiguration().dataSource(primary.getPostgresDatabase(),
+            replica.getPostgresDatabase(), readYourWritesTracker);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    @BeforeAll
+    static void startDatabases() throws Exception {
+        primary = EmbeddedPostgres.builder().start();
+        replica = EmbeddedPostgres.builder().start();
+        for (EmbeddedPostgres postgres : new EmbeddedPostgres[]{primary, replica}) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            jdbcTemplate.execute("create table instance (name varchar not null)");
+            jdbcTemplate.update("insert into instance values (?)", postgres == primary ? "primary" : "replica");
+            jdbcTemplate.execute("create table users (id bigint primary key, username varchar not null)");
+        }
+        new JdbcTemplate(primary.getPostgresDatabase()).update("insert into users values (9, 'anna')");
+    }
+
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsOfAResolvedUserToTheReplica() {
+        readOnly.setReadOnly(true);
+
+        assertEquals("replica", readOnly.execute(status -> {
+            readYourWritesTracker.routeReadsOf(8L);
+            return instance();
+        }));
+        assertEquals("primary", readWrite.execute(status -> {
+            readYourWritesTracker.routeReadsOf(8L);
+            return instance();
+        }));
+        assertEquals("primary", instance());
+    }
+
+    @Test
+    void keepsReadOnlyTransactionsThatNoServiceRoutedOnThePrimary() {
+        readOnly.setReadOnly(true);
+
+        assertEquals("primary", readOnly.execute(status -> instance()));
+        assertEquals("primary,primary", readOnly.execute(status -> {
+            String cacheLoad = instance();
+            readYourWritesTracker.routeReadsOf(8L);
+            return cacheLoad + "," + instance();
+        }));
+    }
+
+    @Test
+    void keepsReadsOfARecentWriterOnThePrimary() {
+        readOnly.setReadOnly(true);
+        readWrite.executeWithoutResult(status -> readYourWritesTracker.recordWrite(7L));
+
+        assertEquals("primary", readOnly.execute(status -> {
+            readYourWritesTracker.routeReadsOf(7L);
+            return instance();
+        }));
+        assertEquals("replica", readOnly.execute(status -> {
+            readYourWritesTracker.routeReadsOf(8L);
+            return instance();
+        }));
+    }
+
+    @Test
+    void runsTheWholeReadOnThePrimaryWhenTheUserLookupMissesTheCache() {
+        readOnly.setReadOnly(true);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findUserByName("anna")).thenAnswer(invocation -> jdbcTemplate.query(
+                "select id, username from users where username = 'anna'", (resultSet, rowNum) -> {
+                    User user = new User();
+                    user.setId(resultSet.getLong("id"));
+                    user.setUsername(resultSet.getString("username"));
+                    return user;
+                }).stream().findFirst());
+        UserLookupCache userLookupCache = new UserLookupCache(userRepository, 100, 60000);
+
+        assertEquals("primary", readOnly.execute(status -> {
+            readYourWritesTracker.routeReadsOf(userLookupCache.getByUsername("anna").id());
+            return instance();
+        }));
+        assertEquals("replica", readOnly.execute(status -> {
+            readYourWritesTracker.routeReadsOf(userLookupCache.getByUsername("anna").id());
+            return instance();
+        }));
+    }
+
+    private String instance() {
+        return jdbcTemplate.queryForObject("select name from instance", String.class);
+    }
+}
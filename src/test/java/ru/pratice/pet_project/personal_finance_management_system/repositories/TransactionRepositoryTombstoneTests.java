@@ -0,0 +1,83 @@
+package ru.pratice.pet_project.personal_finance_management_system.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.experimental.NonFinal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRepositoryTombstoneTests {
+    static long VISIBLE_ID = 1L;
+    static long TOMBSTONED_ID = 2L;
+    static List<String> BY_ID_WRITES = List.of("updateAmount", "updateDate", "updateDescription",
+            "updateCategoryId", "deleteReturningPrevious");
+    @NonFinal
+    static EmbeddedPostgres postgres;
+    @NonFinal
+    static NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbcTemplate = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.getJdbcTemplate().execute("create table users (id bigint primary key, " +
+                "username varchar not null, deleted_at timestamp)");
+        jdbcTemplate.getJdbcTemplate().execute("create table transactions (id bigint primary key, " +
+                "amount bigint not null, date date not null, type smallint not null, user_id bigint not null, " +
+                "description varchar, category_id bigint not null)");
+        jdbcTemplate.getJdbcTemplate().update("insert into users values (1, 'ivan', null), (2, 'petr', now())");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void resetTransactions() {
+        jdbcTemplate.getJdbcTemplate().update("delete from transactions");
+        jdbcTemplate.getJdbcTemplate().update("insert into transactions values " +
+                "(1, 100, '2025-01-10', 1, 1, null, 1), (2, 100, '2025-01-10', 1, 2, null, 1)");
+    }
+
+    @Test
+    void byIdWritesSkipTransactionsOfATombstonedUser() {
+        for (String method : BY_ID_WRITES) {
+            assertTrue(write(method, TOMBSTONED_ID).isEmpty(), method);
+        }
+        assertEquals(Map.of("amount", 100L, "description", "untouched"), jdbcTemplate.queryForMap(
+                "select amount, coalesce(description, 'untouched') as description from transactions where id = 2",
+                Map.of()));
+    }
+
+    @Test
+    void byIdWritesStillApplyToVisibleUsers() {
+        for (String method : BY_ID_WRITES) {
+            assertEquals(1, write(method, VISIBLE_ID).size(), method);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from transactions", Map.of(), Integer.class));
+    }
+
+    private List<Map<String, Object>> write(String method, long id) {
+        String sql = Arrays.stream(TransactionRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(method))
+                .findFirst()
+                .orElseThrow()
+                .getAnnotation(Query.class)
+                .value();
+        return jdbcTemplate.queryForList(sql, Map.of("id", id, "amount", 700L,
+                "date", Date.valueOf(LocalDate.of(2025, 2, 1)), "description", "changed", "categoryId", 2L));
+    }
+}
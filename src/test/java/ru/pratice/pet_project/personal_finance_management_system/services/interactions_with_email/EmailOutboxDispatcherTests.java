@@ -0,0 +1,109 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import lombok.experimental.NonFinal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.EmailOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTests {
+    FakeJavaMailSender mailSender = new FakeJavaMailSender();
+    EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+    EmailOutboxService emailOutboxService =
+            new EmailOutboxService(emailOutboxRepository, 3, 1000, 60000, 300000, new SimpleMeterRegistry());
+    EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(emailOutboxService,
+            new EmailSender(mailSender, null), new SyncTaskExecutor(), 10, 10);
+
+    @BeforeEach
+    void setUp() {
+        mailSender.failing = false;
+        mailSender.sent.clear();
+    }
+
+    @Test
+    void deliversClaimedMessagesAndMarksThemSent() {
+        when(emailOutboxRepository.claimPendingMessages(anyInt(), anyLong()))
+                .thenReturn(List.of(message(1L, 1), message(2L, 1)));
+
+        dispatcher.dispatchPendingEmails();
+
+        assertEquals(2, mailSender.sent.size());
+        verify(emailOutboxRepository).markSent(1L);
+        verify(emailOutboxRepository).markSent(2L);
+    }
+
+    @Test
+    void schedulesRetryWithBackoffWhenSmtpFails() {
+        mailSender.failing = true;
+        when(emailOutboxRepository.claimPendingMessages(anyInt(), anyLong()))
+                .thenReturn(List.of(message(1L, 2)));
+
+        dispatcher.dispatchPendingEmails();
+
+        verify(emailOutboxRepository).scheduleRetry(eq(1L), eq(2000L), anyString());
+        verify(emailOutboxRepository, never()).markSent(anyLong());
+    }
+
+    @Test
+    void marksMessageFailedAfterLastAttempt() {
+        mailSender.failing = true;
+        when(emailOutboxRepository.claimPendingMessages(anyInt(), anyLong()))
+                .thenReturn(List.of(message(1L, 3)));
+
+        dispatcher.dispatchPendingEmails();
+
+        verify(emailOutboxRepository).markFailed(eq(1L), anyString());
+        verify(emailOutboxRepository, never()).scheduleRetry(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToTheCap() {
+        assertEquals(1000, emailOutboxService.backoffFor(1));
+        assertEquals(2000, emailOutboxService.backoffFor(2));
+        assertEquals(4000, emailOutboxService.backoffFor(3));
+        assertEquals(60000, emailOutboxService.backoffFor(20));
+    }
+
+    private EmailOutboxMessage message(long id, int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient("user" + id + "@example.com")
+                .header("header")
+                .content("<p>content</p>")
+                .status(EmailOutboxStatus.PENDING.name())
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static class FakeJavaMailSender extends JavaMailSenderImpl {
+        List<MimeMessage> sent = new ArrayList<>();
+        @NonFinal
+        boolean failing;
+
+        @Override
+        public void send(MimeMessage mimeMessage) {
+            if (failing) {
+                throw new MailSendException("SMTP server unavailable");
+            }
+            sent.add(mimeMessage);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import ru.pratice.pet_project.personal_finance_management_system.entities.EmailOutboxMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledEmailDeliveryTests {
+    FakeSmtpServer smtpServer;
+    SmtpTransportPool transportPool;
+    EmailSender emailSender;
+    List<Long> sent = new ArrayList<>();
+    List<Long> failed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        transportPool = new SmtpTransportPool(mailSender, 1, 60000, 1000);
+        emailSender = new EmailSender(mailSender, transportPool);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        transportPool.closeAll();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsBatchOverOneConnectionAndReusesIt() {
+        send(messages(1, 5));
+        send(messages(6, 10));
+
+        assertEquals(10, sent.size());
+        assertTrue(failed.isEmpty());
+        assertEquals(1, smtpServer.getConnections());
+        assertEquals(10, smtpServer.getRecipients().size());
+        assertEquals(1, transportPool.getStats().idle());
+    }
+
+    @Test
+    void reconnectsWhenThePooledConnectionWasDropped() throws Exception {
+        send(messages(1, 2));
+        smtpServer.dropConnections();
+
+        send(messages(3, 4));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sent);
+        assertEquals(2, smtpServer.getConnections());
+        assertEquals(1, transportPool.getStats().available());
+    }
+
+    private void send(List<EmailOutboxMessage> messages) {
+        emailSender.sendEmails(messages, message -> sent.add(message.getId()),
+                (message, e) -> failed.add(message.getId()));
+    }
+
+    private List<EmailOutboxMessage> messages(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> EmailOutboxMessage.builder()
+                        .id(id)
+                        .recipient("user" + id + "@example.com")
+                        .header("header")
+                        .content("<p>content</p>")
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.templates;
+
+import org.junit.jupiter.api.Test;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.emails.ExceedingLimitEmail;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTests {
+
+    @Test
+    void rendersLiteralAndPlaceholderSegments() {
+        EmailTemplate template = EmailTemplate.compile("<b>{{limit}}</b> of {{ total }}, limit {{limit}}",
+                "limit", "total");
+
+        assertEquals("<b>1000</b> of 1200, limit 1000", template.render(1000L, 1200L));
+        assertEquals("<b>5</b> of 7, limit 5", template.render(5L, 7L));
+    }
+
+    @Test
+    void rejectsUndeclaredAndUnusedParameters() {
+        assertThrows(IllegalStateException.class, () -> EmailTemplate.compile("{{limit}}", "total"));
+        assertThrows(IllegalStateException.class, () -> EmailTemplate.compile("{{limit}}", "limit", "total"));
+        assertThrows(IllegalStateException.class, () -> EmailTemplate.compile("{{limit", "limit"));
+    }
+
+    @Test
+    void rendersExceedingLimitEmailLikeTheClasspathPath() {
+        String content = new ExceedingLimitEmail(1000L, 1200L).getContent();
+
+        assertTrue(content.contains("Превышение лимита в размере 1000 рублей"));
+        assertTrue(content.contains("Ваше текущая сумма расходов: 1200 рублей"));
+        assertFalse(content.contains("{{"));
+    }
+}
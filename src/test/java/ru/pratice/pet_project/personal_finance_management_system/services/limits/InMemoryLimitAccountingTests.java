@@ -0,0 +1,102 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class InMemoryLimitAccountingTests {
+    static long USER_ID = 7L;
+
+    LimitRepository limitRepository = mock(LimitRepository.class);
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    InMemoryLimitAccounting accounting = new InMemoryLimitAccounting(limitRepository, jdbcTemplate, 2);
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        accounting.track(limit(USER_ID, 1_000_000L, 0L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    accounting.addToTotalAmount(USER_ID, 1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        LimitTotals totals = accounting.addToTotalAmount(USER_ID, 0L).orElseThrow();
+        assertEquals(80_000L, totals.getTotalAmount());
+        verifyNoInteractions(limitRepository);
+    }
+
+    @Test
+    void flushWritesAbsoluteTotalsInBatches() {
+        accounting.track(limit(1L, 100L, 10L));
+        accounting.track(limit(2L, 100L, 20L));
+        accounting.track(limit(3L, 100L, 30L));
+        accounting.addToTotalAmount(1L, 5L);
+        accounting.addToTotalAmount(2L, 5L);
+        accounting.addToTotalAmount(3L, -5L);
+
+        accounting.flush();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.captor();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Long> written = batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(row -> (Long) row[0])
+                .sorted()
+                .toList();
+        assertEquals(List.of(15L, 25L, 25L), written);
+
+        clearInvocations(jdbcTemplate);
+        accounting.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void loadsStoredTotalsOnFirstUse() {
+        when(limitRepository.findLimitByUserId(USER_ID)).thenReturn(Optional.of(limit(USER_ID, 100L, 90L)));
+
+        LimitTotals totals = accounting.addToTotalAmount(USER_ID, 20L).orElseThrow();
+
+        assertEquals(110L, totals.getTotalAmount());
+        assertEquals(100L, totals.getLimitAmount());
+        accounting.addToTotalAmount(USER_ID, 1L);
+        verify(limitRepository, times(1)).findLimitByUserId(USER_ID);
+    }
+
+    @Test
+    void returnsEmptyForUserWithoutLimit() {
+        when(limitRepository.findLimitByUserId(USER_ID)).thenReturn(Optional.empty());
+
+        assertTrue(accounting.addToTotalAmount(USER_ID, 20L).isEmpty());
+    }
+
+    private LimitTracker limit(long userId, long limitAmount, long totalAmount) {
+        return LimitTracker.builder()
+                .userId(userId)
+                .limitAmount(limitAmount)
+                .totalAmount(totalAmount)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.limits;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.pratice.pet_project.personal_finance_management_system.entities.LimitTracker;
+import ru.pratice.pet_project.personal_finance_management_system.entities.User;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.EmailOutboxRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.EmailOutboxService;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LimitExceedanceTrackerTests {
+    static long USER_ID = 7L;
+
+    EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    InMemoryLimitAccounting limitAccounting = new InMemoryLimitAccounting(mock(LimitRepository.class),
+            null, 500);
+
+    private LimitExceedanceTracker tracker(boolean digestEnabled) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("ivan");
+        user.setEmail("ivan@example.com");
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        limitAccounting.track(LimitTracker.builder().userId(USER_ID).limitAmount(1000L).totalAmount(900L).build());
+        LimitBreachNotifier notifier = new LimitBreachNotifier(
+                new EmailOutboxService(emailOutboxRepository, 5, 1000, 60000, 300000, new SimpleMeterRegistry()),
+                new UserLookupCache(userRepository, 100, 60000), 3600000, digestEnabled, meterRegistry);
+        return new LimitExceedanceTracker(limitAccounting, notifier, meterRegistry);
+    }
+
+    @Test
+    void notifiesOnlyWhenTheLimitIsCrossed() {
+        LimitExceedanceTracker tracker = tracker(false);
+
+        tracker.incrementTotalAmount(USER_ID, 50L);
+        tracker.incrementTotalAmount(USER_ID, 100L);
+        tracker.incrementTotalAmount(USER_ID, 100L);
+        tracker.incrementTotalAmount(USER_ID, 100L);
+
+        verify(emailOutboxRepository, times(1)).save(any());
+        assertEquals(new LimitBreachNotifier.Stats(1, 0, 0, 0), tracker.getNotificationStats());
+        assertEquals(4.0, meterRegistry.counter("limits.checks").count());
+        assertEquals(1.0, meterRegistry.counter("limits.breaches").count());
+        assertEquals(1.0, meterRegistry.counter("limits.notifications.sent").count());
+    }
+
+    @Test
+    void suppressesRepeatedCrossingsWithinCooldown() {
+        LimitExceedanceTracker tracker = tracker(false);
+
+        tracker.incrementTotalAmount(USER_ID, 200L);
+        tracker.decrementTotalAmount(USER_ID, 200L);
+        tracker.incrementTotalAmount(USER_ID, 200L);
+
+        verify(emailOutboxRepository, times(1)).save(any());
+        assertEquals(new LimitBreachNotifier.Stats(1, 1, 0, 0), tracker.getNotificationStats());
+    }
+
+    @Test
+    void coalescesSuppressedCrossingsIntoDigest() {
+        LimitExceedanceTracker tracker = tracker(true);
+
+        for (int i = 0; i < 3; i++) {
+            tracker.incrementTotalAmount(USER_ID, 200L);
+            tracker.decrementTotalAmount(USER_ID, 200L);
+        }
+
+        assertEquals(new LimitBreachNotifier.Stats(1, 2, 0, 1), tracker.getNotificationStats());
+    }
+}
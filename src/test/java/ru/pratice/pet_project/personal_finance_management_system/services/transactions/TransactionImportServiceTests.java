@@ -0,0 +1,63 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.pratice.pet_project.personal_finance_management_system.entities.Category;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.categories.CategoryService;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserReference;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+class TransactionImportServiceTests {
+    UserService userService = mock(UserService.class);
+    CategoryService categoryService = mock(CategoryService.class);
+    LimitService limitService = mock(LimitService.class);
+    EntityManager entityManager = mock(EntityManager.class);
+    Connection connection = mock(Connection.class);
+
+    @Test
+    void csvImportRunsInATransactionWhenCalledThroughTheProxy() throws Exception {
+        Category category = new Category();
+        category.setId(1L);
+        when(userService.getUserReferenceByName("ivan")).thenReturn(new UserReference(1L, "ivan", "ivan@mail.ru"));
+        when(categoryService.getCategoriesByIds(anySet())).thenReturn(Map.of(1L, category));
+        List<Boolean> activeOnPersist = new ArrayList<>();
+        doAnswer(invocation -> activeOnPersist.add(TransactionSynchronizationManager.isActualTransactionActive()))
+                .when(entityManager).persist(any());
+
+        TransactionImportResult result = proxied().importCsv("ivan",
+                "date,type,amount,category_id\n2025-01-10,CONSUMPTION_TYPE,100,1\n2025-01-11,INCOME_TYPE,50,1\n");
+
+        assertEquals(List.of(true, true), activeOnPersist);
+        assertEquals(100L, result.consumptionAmount());
+        verify(connection).commit();
+    }
+
+    private TransactionImportService proxied() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        ProxyFactory proxyFactory = new ProxyFactory(new TransactionImportService(userService, categoryService,
+                limitService, mock(MonthlyAggregateService.class), entityManager));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource()));
+        return (TransactionImportService) proxyFactory.getProxy();
+    }
+}
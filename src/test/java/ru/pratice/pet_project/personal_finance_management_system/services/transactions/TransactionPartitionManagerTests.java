@@ -0,0 +1,107 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.experimental.NonFinal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.InvalidRequestException;
+import ru.pratice.pet_project.personal_finance_management_system.services.exceptions.ResourceNotFoundException;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionPartitionManagerTests {
+    static String CURRENT_PARTITION = String.format("transactions_y%dm%02d",
+            LocalDate.now().getYear(), LocalDate.now().getMonthValue());
+    @NonFinal
+    static EmbeddedPostgres postgres;
+    @NonFinal
+    static JdbcTemplate jdbcTemplate;
+    @NonFinal
+    static TransactionPartitionManager manager;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (id bigserial primary key, username varchar not null)");
+        jdbcTemplate.execute("create table categories (id bigserial primary key, name varchar not null)");
+        jdbcTemplate.execute("create table transactions (id bigint primary key, amount bigint not null, " +
+                "date date not null, type smallint not null, user_id bigint not null, description varchar, " +
+                "category_id bigint not null references categories (id), " +
+                "constraint fk_transactions_user_id foreign key (user_id) references users (id))");
+        jdbcTemplate.execute("create index idx_transactions_user_id_date_id on transactions (user_id, date, id)");
+        jdbcTemplate.update("insert into users (username) values ('ivan')");
+        jdbcTemplate.update("insert into categories (name) values ('food')");
+        List<LocalDate> dates = List.of(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 31),
+                LocalDate.of(2024, 3, 1), LocalDate.of(2025, 6, 15));
+        for (int i = 0; i < dates.size(); i++) {
+            jdbcTemplate.update("insert into transactions values (?, 100, ?, 1, 1, null, 1)", i + 1,
+                    Date.valueOf(dates.get(i)));
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        manager = new TransactionPartitionManager(jdbcTemplate, transactionTemplate, true, "month", 2);
+        manager.partitionTable();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void convertsExistingTableKeepingRowsAndCreatesUpcomingPartitions() {
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from transactions", Integer.class));
+        List<String> attached = manager.getPartitions().stream()
+                .filter(TransactionPartitionManager.Partition::attached)
+                .map(TransactionPartitionManager.Partition::name)
+                .toList();
+        assertTrue(attached.containsAll(List.of("transactions_y2024m01", "transactions_y2024m03",
+                "transactions_y2025m06", CURRENT_PARTITION)));
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from transactions_y2024m01", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from pg_indexes " +
+                "where indexname = 'idx_transactions_user_id_date_id'", Integer.class));
+
+        manager.createUpcomingPartitions();
+        assertEquals(attached.size(), manager.getPartitions().size());
+    }
+
+    @Test
+    void prunesPartitionsOutsideTheDateRange() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain select * from transactions " +
+                "where user_id = 1 and date between '2024-03-01' and '2024-03-31'", String.class));
+
+        assertTrue(plan.contains("transactions_y2024m03"));
+        assertFalse(plan.contains("transactions_y2024m01"));
+        assertFalse(plan.contains("transactions_default"));
+    }
+
+    @Test
+    void reattachingMovesRowsWrittenWhileDetached() {
+        manager.detachPartition("transactions_y2024m01");
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from transactions", Integer.class));
+        jdbcTemplate.update("insert into transactions values (100, 100, '2024-01-20', 1, 1, null, 1)");
+
+        manager.attachPartition("transactions_y2024m01");
+
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from transactions_y2024m01", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from transactions_default", Integer.class));
+        jdbcTemplate.update("delete from transactions where id = 100");
+    }
+
+    @Test
+    void rejectsUnknownOrAttachedPartitions() {
+        assertThrows(InvalidRequestException.class, () -> manager.detachPartition("users"));
+        assertThrows(ResourceNotFoundException.class, () -> manager.detachPartition("transactions_y1990m01"));
+        assertThrows(InvalidRequestException.class, () -> manager.attachPartition("transactions_y2024m03"));
+    }
+}
@@ -0,0 +1,239 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.transactions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.entities.User;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.*;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.LimitRepository.LimitTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.RemovedTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.TransactionSnapshot;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.interactions_with_email.EmailOutboxService;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.DatabaseLimitAccounting;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitAccounting;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitBreachNotifier;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitExceedanceTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.ReadYourWritesTracker;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserLookupCache;
+import ru.pratice.pet_project.personal_finance_management_system.services.users.UserService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionWritePathStatementsTests {
+    static long USER_ID = 7L;
+    static String USERNAME = "ivan";
+    static LocalDate DATE = LocalDate.of(2025, 3, 14);
+
+    TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    LimitRepository limitRepository = mock(LimitRepository.class);
+    CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    MonthlyAggregateRepository monthlyAggregateRepository = mock(MonthlyAggregateRepository.class);
+    EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+
+    UserLookupCache userLookupCache = new UserLookupCache(userRepository, 100, 60000);
+    ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(0);
+    MonthlyAggregateService monthlyAggregateService = new MonthlyAggregateService(monthlyAggregateRepository,
+            userLookupCache, readYourWritesTracker);
+    LimitAccounting limitAccounting = new DatabaseLimitAccounting(limitRepository);
+    LimitService limitService = new LimitService(limitRepository, limitAccounting,
+            new LimitExceedanceTracker(limitAccounting, new LimitBreachNotifier(
+                    new EmailOutboxService(emailOutboxRepository, 5, 1000, 60000, 300000, new SimpleMeterRegistry()),
+                    userLookupCache, 3600000, false, new SimpleMeterRegistry()), new SimpleMeterRegistry()),
+            userLookupCache, readYourWritesTracker);
+    UserService userService = new UserService(userRepository, transactionRepository, limitService,
+            monthlyAggregateService, userLookupCache, readYourWritesTracker, "sync");
+    TransactionSaveAndUpdateService saveAndUpdateService = new TransactionSaveAndUpdateService(
+            transactionRepository, userService, limitService, monthlyAggregateService, readYourWritesTracker);
+    TransactionDeleteService deleteService = new TransactionDeleteService(limitService, saveAndUpdateService,
+            transactionRepository, userService, monthlyAggregateService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+
+    @Test
+    void updateAmountOfConsumptionUnderLimitTakesThreeStatements() {
+        when(transactionRepository.updateAmount(1L, 700L))
+                .thenReturn(Optional.of(snapshot(TypeOfTransaction.CONSUMPTION_TYPE, 500L)));
+        when(limitRepository.addToTotalAmount(USER_ID, 200L)).thenReturn(Optional.of(totals(900L, 1000L)));
+
+        assertEquals(3, countStatements(() -> saveAndUpdateService.updateAmount(1L, 700L)));
+        verify(limitRepository).addToTotalAmount(USER_ID, 200L);
+    }
+
+    @Test
+    void updateAmountOfIncomeDoesNotTouchLimits() {
+        when(transactionRepository.updateAmount(1L, 700L))
+                .thenReturn(Optional.of(snapshot(TypeOfTransaction.INCOME_TYPE, 500L)));
+
+        assertEquals(2, countStatements(() -> saveAndUpdateService.updateAmount(1L, 700L)));
+        verifyNoInteractions(limitRepository);
+    }
+
+    @Test
+    void updateAmountCrossingLimitLooksUpEmailAndQueuesIt() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername(USERNAME);
+        user.setEmail("ivan@example.com");
+        when(transactionRepository.updateAmount(1L, 700L))
+                .thenReturn(Optional.of(snapshot(TypeOfTransaction.CONSUMPTION_TYPE, 500L)));
+        when(limitRepository.addToTotalAmount(USER_ID, 200L)).thenReturn(Optional.of(totals(1100L, 1000L)));
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        assertEquals(5, countStatements(() -> saveAndUpdateService.updateAmount(1L, 700L)));
+        verify(emailOutboxRepository).save(any());
+    }
+
+    @Test
+    void deleteOfConsumptionTakesThreeStatements() {
+        when(transactionRepository.deleteReturningPrevious(1L))
+                .thenReturn(Optional.of(snapshot(TypeOfTransaction.CONSUMPTION_TYPE, 500L)));
+        when(limitRepository.addToTotalAmount(USER_ID, -500L)).thenReturn(Optional.of(totals(0L, 1000L)));
+
+        assertEquals(3, countStatements(() -> deleteService.deleteTransactionById(1L)));
+        verify(limitRepository).addToTotalAmount(USER_ID, -500L);
+    }
+
+    @Test
+    void deleteByTypeOfIncomeDoesNotTouchLimits() {
+        givenUser();
+        when(transactionRepository.deleteChunkByType(USER_ID, TypeOfTransaction.INCOME_TYPE, 2))
+                .thenReturn(List.of(removed(TypeOfTransaction.INCOME_TYPE, 300L, 1)));
+
+        deleteService.deleteTransactionsByType(TypeOfTransaction.INCOME_TYPE, USERNAME);
+
+        verify(monthlyAggregateRepository).applyDelta(USER_ID, DATE.withDayOfMonth(1), 3L,
+                TypeOfTransaction.INCOME_TYPE, -300L, -1L);
+        verifyNoInteractions(limitRepository);
+    }
+
+    @Test
+    void deleteByUsernameRunsInChunksAndSubtractsOnlyConsumption() {
+        givenUser();
+        when(transactionRepository.deleteChunkByUserId(USER_ID, 2))
+                .thenReturn(List.of(removed(TypeOfTransaction.CONSUMPTION_TYPE, 500L, 1),
+                        removed(TypeOfTransaction.INCOME_TYPE, 300L, 1)))
+                .thenReturn(List.of(removed(TypeOfTransaction.CONSUMPTION_TYPE, 200L, 1)));
+        when(limitRepository.addToTotalAmount(eq(USER_ID), anyLong())).thenReturn(Optional.of(totals(0L, 1000L)));
+
+        deleteService.deleteTransactionsByUsername(USERNAME);
+
+        verify(transactionRepository, times(2)).deleteChunkByUserId(USER_ID, 2);
+        verify(limitRepository).addToTotalAmount(USER_ID, -500L);
+        verify(limitRepository).addToTotalAmount(USER_ID, -200L);
+    }
+
+    @Test
+    void updateDateWithinTheSameMonthTakesOneStatement() {
+        when(transactionRepository.updateDate(1L, DATE.plusDays(1)))
+                .thenReturn(Optional.of(snapshot(TypeOfTransaction.CONSUMPTION_TYPE, 500L)));
+
+        assertEquals(1, countStatements(() -> saveAndUpdateService.updateDate(1L, DATE.plusDays(1))));
+    }
+
+    @Test
+    void updateDescriptionTakesOneStatement() {
+        when(transactionRepository.updateDescription(1L, "coffee")).thenReturn(Optional.of(USER_ID));
+
+        assertEquals(1, countStatements(() -> saveAndUpdateService.updateDescription(1L, " coffee ")));
+    }
+
+    private int countStatements(Runnable operation) {
+        Object[] repositories = {transactionRepository, userRepository, limitRepository, categoryRepository,
+                monthlyAggregateRepository, emailOutboxRepository};
+        clearInvocations(repositories);
+        operation.run();
+        return Stream.of(repositories)
+                .mapToInt(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+
+    private void givenUser() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername(USERNAME);
+        user.setEmail("ivan@example.com");
+        when(userRepository.findUserByName(USERNAME)).thenReturn(Optional.of(user));
+    }
+
+    private RemovedTotals removed(TypeOfTransaction type, long amount, long count) {
+        return new RemovedTotals() {
+            @Override
+            public LocalDate getPeriod() {
+                return DATE.withDayOfMonth(1);
+            }
+
+            @Override
+            public long getCategoryId() {
+                return 3L;
+            }
+
+            @Override
+            public short getTypeCode() {
+                return type.getCode();
+            }
+
+            @Override
+            public long getAmount() {
+                return amount;
+            }
+
+            @Override
+            public long getRemovedCount() {
+                return count;
+            }
+        };
+    }
+
+    private TransactionSnapshot snapshot(TypeOfTransaction type, long amount) {
+        return new TransactionSnapshot() {
+            @Override
+            public long getAmount() {
+                return amount;
+            }
+
+            @Override
+            public LocalDate getDate() {
+                return DATE;
+            }
+
+            @Override
+            public short getTypeCode() {
+                return type.getCode();
+            }
+
+            @Override
+            public long getUserId() {
+                return USER_ID;
+            }
+
+            @Override
+            public long getCategoryId() {
+                return 3L;
+            }
+        };
+    }
+
+    private LimitTotals totals(long totalAmount, long limitAmount) {
+        return new LimitTotals() {
+            @Override
+            public long getTotalAmount() {
+                return totalAmount;
+            }
+
+            @Override
+            public long getLimitAmount() {
+                return limitAmount;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.MonthlyAggregateRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.TransactionRepository.RemovedTotals;
+import ru.pratice.pet_project.personal_finance_management_system.repositories.UserRepository;
+import ru.pratice.pet_project.personal_finance_management_system.services.aggregates.MonthlyAggregateService;
+import ru.pratice.pet_project.personal_finance_management_system.services.limits.LimitService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class DeletedUserCompactorTests {
+    static long USER_ID = 5L;
+
+    UserRepository userRepository = mock(UserRepository.class);
+    TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    MonthlyAggregateRepository monthlyAggregateRepository = mock(MonthlyAggregateRepository.class);
+    LimitService limitService = mock(LimitService.class);
+    DeletedUserCompactor compactor = compactor("tombstone");
+
+    @Test
+    void purgesOneChunkPerRunAndRemovesTheUserAfterTheLastOne() {
+        when(userRepository.findDeletedUserIds(1)).thenReturn(List.of(USER_ID));
+        when(userRepository.countDeletedUsers()).thenReturn(1L);
+        when(transactionRepository.countTransactionsByUserId(USER_ID)).thenReturn(3L);
+        when(transactionRepository.deleteChunkByUserId(USER_ID, 2))
+                .thenReturn(List.of(removed(2)))
+                .thenReturn(List.of(removed(1)));
+
+        compactor.purgeNextChunk();
+
+        assertEquals(new DeletedUserCompactor.Progress(USER_ID, 3, 2), compactor.getStats().current());
+        verify(userRepository, never()).deleteUserById(USER_ID);
+
+        compactor.purgeNextChunk();
+
+        DeletedUserCompactor.Stats stats = compactor.getStats();
+        assertNull(stats.current());
+        assertEquals(1, stats.usersPurged());
+        assertEquals(3, stats.transactionsPurged());
+        verify(monthlyAggregateRepository).deleteByUserId(USER_ID);
+        verify(limitService).deleteLimitByUserId(USER_ID);
+        verify(userRepository).deleteUserById(USER_ID);
+        verify(transactionRepository, times(1)).countTransactionsByUserId(USER_ID);
+    }
+
+    @Test
+    void doesNothingWithoutDeletedUsers() {
+        when(userRepository.findDeletedUserIds(1)).thenReturn(List.of());
+
+        compactor.purgeNextChunk();
+
+        verifyNoInteractions(transactionRepository, limitService);
+    }
+
+    @Test
+    void doesNotPollInSyncMode() {
+        compactor("sync").purgeNextChunk();
+
+        verifyNoInteractions(userRepository, transactionRepository, limitService);
+    }
+
+    private DeletedUserCompactor compactor(String deletionMode) {
+        return new DeletedUserCompactor(userRepository, transactionRepository, limitService,
+                new MonthlyAggregateService(monthlyAggregateRepository, mock(UserLookupCache.class),
+                        new ReadYourWritesTracker(0)),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, deletionMode);
+    }
+
+    private RemovedTotals removed(long count) {
+        RemovedTotals totals = mock(RemovedTotals.class);
+        when(totals.getRemovedCount()).thenReturn(count);
+        return totals;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.pratice.pet_project.personal_finance_management_system.services.users;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.experimental.NonFinal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdSchemaMigrationTests {
+    @NonFinal
+    EmbeddedPostgres postgres;
+    @NonFinal
+    JdbcTemplate jdbcTemplate;
+    @NonFinal
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createLegacySchema() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("create table users (id bigserial primary key, username varchar not null unique)");
+        jdbcTemplate.execute("create table transactions (id bigint primary key, amount bigint not null, " +
+                "date date not null, type varchar not null, username varchar not null, description varchar, " +
+                "category_id bigint not null)");
+        jdbcTemplate.execute("create table limits (id bigserial primary key, username varchar not null unique, " +
+                "limit_amount bigint not null, total_amount bigint not null)");
+        jdbcTemplate.execute("create table monthly_aggregates (id bigserial primary key, username varchar not null, " +
+                "period date not null, category_id bigint not null, type varchar not null, " +
+                "total_amount bigint not null)");
+        jdbcTemplate.update("insert into users (username) values ('ivan'), ('petr')");
+        jdbcTemplate.update("insert into transactions values (1, 100, '2025-01-10', 'INCOME_TYPE', 'ivan', null, 1), " +
+                "(2, 200, '2025-01-11', 'INCOME_TYPE', 'petr', null, 1)");
+        jdbcTemplate.update("insert into limits (username, limit_amount, total_amount) values ('ivan', 1000, 100)");
+        jdbcTemplate.update("insert into monthly_aggregates (username, period, category_id, type, total_amount) " +
+                "values ('ivan', '2025-01-01', 1, 'INCOME_TYPE', 100)");
+    }
+
+    @AfterEach
+    void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void createsTheUserIdIndexesAndConstraintsHibernateCouldNotCreate() {
+        new UserIdSchemaMigration(jdbcTemplate, transactionTemplate, false).migrateUsernameColumnsToUserId();
+
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList("select user_id from transactions order by id",
+                Long.class));
+        List<String> indexes = jdbcTemplate.queryForList("select indexname from pg_indexes " +
+                "where tablename = 'transactions' and indexname like 'idx_transactions_user_id%'", String.class);
+        assertEquals(4, indexes.size());
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into limits (user_id, limit_amount, total_amount) values (1, 500, 0)"));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("insert into " +
+                "monthly_aggregates (user_id, period, category_id, type, total_amount) " +
+                "values (1, '2025-01-01', 1, 'INCOME_TYPE', 50)"));
+    }
+
+    @Test
+    void refusesToDropOrphanedRowsWithoutTheOptIn() {
+        jdbcTemplate.update("insert into transactions values (3, 300, '2025-01-12', 'INCOME_TYPE', 'gone', null, 1)");
+        UserIdSchemaMigration migration = new UserIdSchemaMigration(jdbcTemplate, transactionTemplate, false);
+
+        assertThrows(IllegalStateException.class, migration::migrateUsernameColumnsToUserId);
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from transactions where username is not null",
+                Integer.class));
+
+        new UserIdSchemaMigration(jdbcTemplate, transactionTemplate, true).migrateUsernameColumnsToUserId();
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from transactions", Integer.class));
+    }
+}